@@ -1,5 +1,5 @@
-def bomList = new File( basedir, "target/maven-status/bom-search-maven-plugin/search/default-cli/bomList.lst" )
-assert !bomList.exists()
+def status = new File( basedir, "target/maven-status/bom-search-maven-plugin/search/default-cli/status.bin" )
+assert !status.exists()
 
 def log = new File(basedir,'build.log')
 assert 1 == log.text.count('[DEBUG] Incremental build disabled.') : 'Should indicate incremental build disabled'
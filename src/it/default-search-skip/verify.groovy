@@ -1,5 +1,5 @@
-def bomList = new File( basedir, "target/maven-status/bom-search-maven-plugin/search/default-cli/bomList.lst" )
-assert !bomList.exists()
+def status = new File( basedir, "target/maven-status/bom-search-maven-plugin/search/default-cli/status.bin" )
+assert !status.exists()
 
 def log = new File(basedir,'build.log')
 assert 0 == log.text.count('[INFO] Changes detected. Searching for available BOM dependencies.') : 'Should log when searching'
@@ -0,0 +1,112 @@
+package com.github.olegzzz.maven.plugin.bomsearch;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.apache.maven.model.Dependency;
+import org.jsoup.nodes.Document;
+
+/**
+ * Synthetic inputs for the benchmarks.
+ */
+final class BenchmarkSupport {
+
+  private BenchmarkSupport() {
+  }
+
+  /**
+   * Renders a directory listing in the markup served by Maven Central.
+   *
+   * @param entries number of artifact entries
+   * @param boms    how many of them are BOMs
+   */
+  static String centralListing(String groupPath, int entries, int boms) {
+    StringBuilder sb = new StringBuilder(entries * 120);
+    sb.append("<!DOCTYPE html>\n<html>\n<head>\n<title>Central Repository: ")
+        .append(groupPath)
+        .append("</title>\n<meta name=\"viewport\" content=\"width=device-width, initial-scale=1\">\n")
+        .append("<style>\nbody {\n  background: #fff;\n}\n</style>\n</head>\n<body>\n")
+        .append("<header>\n<h1>").append(groupPath).append("</h1>\n</header>\n<hr/>\n<main>\n")
+        .append("<pre id=\"contents\">\n<a href=\"../\">../</a>\n");
+    for (int i = 0; i < entries; i++) {
+      String name = i < boms ? String.format("artifact%d-bom", i) : String.format("artifact%d", i);
+      sb.append("<a href=\"").append(name).append("/\" title=\"").append(name).append("/\">")
+          .append(name).append("/</a>")
+          .append("                                     2021-05-12 08:21         -      \n");
+    }
+    sb.append("</pre>\n</main>\n<hr/>\n</body>\n</html>\n");
+    return sb.toString();
+  }
+
+  /**
+   * Creates <code>count</code> dependencies spread evenly over <code>groups</code> groups.
+   */
+  static List<Dependency> dependencies(int count, int groups) {
+    List<Dependency> res = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      Dependency d = new Dependency();
+      d.setGroupId(String.format("org.group%d", i % groups));
+      d.setArtifactId(String.format("artifact%d", i));
+      d.setType("jar");
+      d.setScope("compile");
+      res.add(d);
+    }
+    return res;
+  }
+
+  static void set(Object target, String name, Object value) {
+    for (Class<?> c = target.getClass(); c != null; c = c.getSuperclass()) {
+      try {
+        Field field = c.getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(target, value);
+        return;
+      } catch (NoSuchFieldException e) {
+        // look in the superclass
+      } catch (IllegalAccessException e) {
+        throw new IllegalStateException(e);
+      }
+    }
+    throw new IllegalArgumentException(name);
+  }
+
+  /**
+   * Serves recorded listings from memory, optionally with a simulated network latency.
+   */
+  static class StubLoader implements DocumentLoader {
+
+    private static final ListingScanner SCANNER = new ListingScanner(SearchMojo.TITLE_BOM);
+
+    private final Map<String, String> listings;
+    private final long latencyMillis;
+
+    StubLoader(Map<String, String> listings, long latencyMillis) {
+      this.listings = listings;
+      this.latencyMillis = latencyMillis;
+    }
+
+    @Override
+    public Document loadGroupByUri(String uri) {
+      String listing = listings.get(uri);
+      if (listing == null) {
+        return null;
+      }
+      try {
+        if (latencyMillis > 0) {
+          TimeUnit.MILLISECONDS.sleep(latencyMillis);
+        }
+        return SCANNER.scan(new StringReader(listing), uri);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return null;
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+  }
+}
@@ -0,0 +1,53 @@
+package com.github.olegzzz.maven.plugin.bomsearch;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.apache.maven.model.Dependency;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Selecting and counting dependency groups of large projects.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GroupingBenchmark {
+
+  @Param({"100", "1000", "5000"})
+  public int dependencies;
+
+  private SearchMojo mojo;
+  private List<Dependency> deps;
+  private List<String> groups;
+
+  @Setup
+  public void setUp() {
+    mojo = new SearchMojo();
+    deps = BenchmarkSupport.dependencies(dependencies, Math.max(1, dependencies / 4));
+    groups = mojo.selectGroups(deps, Collections.emptySet());
+  }
+
+  @Benchmark
+  public List<String> selectGroups() {
+    return mojo.selectGroups(deps, Collections.emptySet());
+  }
+
+  @Benchmark
+  public List<String> filterGroups() {
+    return mojo.filterGroups(groups, Collections.emptySet(), 2);
+  }
+}
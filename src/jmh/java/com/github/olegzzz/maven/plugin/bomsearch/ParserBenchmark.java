@@ -0,0 +1,65 @@
+package com.github.olegzzz.maven.plugin.bomsearch;
+
+import static java.util.stream.Collectors.toList;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.jsoup.Jsoup;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Listing parsing: the streaming scanner behind {@link DocumentParser} against a full Jsoup DOM.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParserBenchmark {
+
+  private static final String URI = SearchMojo.MAVEN_CENTRAL + "/org/group";
+
+  /**
+   * Number of entries in the listing, from a small group to one the size of org/apache.
+   */
+  @Param({"50", "1000", "20000"})
+  public int entries;
+
+  private String listing;
+  private DocumentParser parser;
+
+  @Setup
+  public void setUp() {
+    listing = BenchmarkSupport.centralListing("org/group", entries, 2);
+    parser = new DocumentParser(
+        new BenchmarkSupport.StubLoader(Collections.singletonMap(URI, listing), 0));
+  }
+
+  @Benchmark
+  public List<String> streaming() {
+    return parser.parseArtifactsIds(URI);
+  }
+
+  @Benchmark
+  public List<String> dom() {
+    return Jsoup.parse(listing, URI)
+        .select(SearchMojo.TAG_A)
+        .stream()
+        .filter(SearchMojo.TITLE_BOM)
+        .map(SearchMojo.GET_HREF)
+        .map(SearchMojo.REMOVE_SLASH)
+        .collect(toList());
+  }
+}
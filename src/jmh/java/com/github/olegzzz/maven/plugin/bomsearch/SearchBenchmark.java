@@ -0,0 +1,78 @@
+package com.github.olegzzz.maven.plugin.bomsearch;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * End-to-end {@link SearchMojo#searchForBoms(List)} latency against a stub repository.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SearchBenchmark {
+
+  @Param({"30"})
+  public int groups;
+
+  @Param({"1", "4", "16"})
+  public int threads;
+
+  /**
+   * Simulated round trip per listing.
+   */
+  @Param({"0", "5"})
+  public long latencyMillis;
+
+  private final List<String> groupIds = new ArrayList<>();
+  private BenchmarkSupport.StubLoader loader;
+  private SearchMojo mojo;
+
+  @Setup
+  public void setUp() {
+    Map<String, String> listings = new HashMap<>();
+    for (int i = 0; i < groups; i++) {
+      String groupId = String.format("org.group%d", i);
+      groupIds.add(groupId);
+      listings.put(String.format("%s/org/group%d", SearchMojo.MAVEN_CENTRAL, i),
+          BenchmarkSupport.centralListing("org/group" + i, 200, i % 3 == 0 ? 1 : 0));
+    }
+    loader = new BenchmarkSupport.StubLoader(listings, latencyMillis);
+  }
+
+  /**
+   * A fresh mojo per invocation, so that no lookup is answered from the session cache.
+   */
+  @Setup(Level.Invocation)
+  public void newMojo() {
+    mojo = new SearchMojo();
+    mojo.setLog(new SystemStreamLog());
+    BenchmarkSupport.set(mojo, "mavenRepoUrl", SearchMojo.MAVEN_CENTRAL);
+    BenchmarkSupport.set(mojo, "threads", threads);
+    BenchmarkSupport.set(mojo, "docParser", new DocumentParser(loader));
+  }
+
+  @Benchmark
+  public Collection<DependencyModel> searchForBoms() {
+    return mojo.searchForBoms(groupIds);
+  }
+}
@@ -0,0 +1,111 @@
+package com.github.olegzzz.maven.plugin.bomsearch;
+
+import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toSet;
+
+import com.google.common.annotations.VisibleForTesting;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.apache.maven.model.Dependency;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.project.MavenProject;
+
+/**
+ * Searches for available BOM dependencies once for all projects of the reactor.
+ *
+ * <p>Groups are counted across all modules, so a group used once in each of several modules
+ * qualifies just like a group used several times in one module. Every qualifying group is looked
+ * up once for the whole build. Found BOMs are reported for the root project, where they would be
+ * imported, and for every module that uses their group.
+ */
+@Mojo(name = "aggregate", aggregator = true)
+public class AggregateMojo extends SearchMojo {
+
+  @Override
+  public void execute() throws MojoExecutionException {
+    if (skip) {
+      return;
+    }
+
+    long start = System.nanoTime();
+    initDocParser();
+    start = phase("setup", start);
+
+    Map<MavenProject, List<String>> groupsByModule = collectGroups(session.getProjects());
+    List<String> groups = groupsByModule.values().stream()
+        .flatMap(List::stream)
+        .collect(toList());
+    // A BOM imported by any module, most likely through a shared parent, is not suggested again.
+    Set<Dependency> imported = session.getProjects().stream()
+        .flatMap(p -> getProjectBoms(p).stream())
+        .collect(toSet());
+    List<String> dedupGroups = filterGroups(groups, imported, minOccurrence);
+    getLog().info(String.format(
+        "Searching for available BOM dependencies of %d groups in %d modules.",
+        dedupGroups.size(), groupsByModule.size()));
+    final Collection<DependencyModel> boms = searchForBoms(dedupGroups);
+    start = phase("search", start);
+
+    savePersistentCache();
+    phase("cache save", start);
+    reportMetrics(true);
+    printResults(boms, attribute(boms, groupsByModule));
+  }
+
+  /**
+   * Returns the groups of every project, counted once per dependency. Projects with
+   * <code>pom</code> packaging are left out of multi-module builds, since their dependencies are
+   * inherited by and counted with their modules.
+   */
+  @VisibleForTesting
+  Map<MavenProject, List<String>> collectGroups(List<MavenProject> projects) {
+    Map<MavenProject, List<String>> res = new LinkedHashMap<>();
+    for (MavenProject p : projects) {
+      if (projects.size() > 1 && "pom".equals(p.getPackaging())) {
+        continue;
+      }
+      res.put(p, selectGroups(p.getDependencies(), getProjectBoms(p)));
+    }
+    return res;
+  }
+
+  /**
+   * Returns the BOMs out of <code>boms</code> that apply to each module, i.e. whose group, or a
+   * subgroup of it, the module depends on. Modules without any are left out.
+   */
+  @VisibleForTesting
+  static Map<MavenProject, List<DependencyModel>> attribute(Collection<DependencyModel> boms,
+      Map<MavenProject, List<String>> groupsByModule) {
+    Map<MavenProject, List<DependencyModel>> res = new LinkedHashMap<>();
+    for (Map.Entry<MavenProject, List<String>> e : groupsByModule.entrySet()) {
+      Set<String> groups = new HashSet<>(e.getValue());
+      List<DependencyModel> moduleBoms = boms.stream()
+          .filter(bom -> groups.contains(bom.getGroup())
+              || groups.stream().anyMatch(g -> g.startsWith(bom.getGroup() + ".")))
+          .collect(toList());
+      if (!moduleBoms.isEmpty()) {
+        res.put(e.getKey(), moduleBoms);
+      }
+    }
+    return res;
+  }
+
+  private void printResults(Collection<DependencyModel> boms,
+      Map<MavenProject, List<DependencyModel>> byModule) {
+    if (boms.isEmpty()) {
+      getLog().info("No suitable BOMs found.");
+      return;
+    }
+    getLog().info(String.format("Following BOMs found for reactor: %s.", new ArrayList<>(boms)));
+    for (Map.Entry<MavenProject, List<DependencyModel>> e : byModule.entrySet()) {
+      getLog().info(String.format("Following BOMs apply to module %s: %s.",
+          e.getKey().getArtifactId(), e.getValue()));
+    }
+  }
+}
@@ -0,0 +1,94 @@
+package com.github.olegzzz.maven.plugin.bomsearch;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Refreshes expired entries of a {@link PersistentLookupCache} off the build's critical path.
+ *
+ * <p>Refreshes run on a few daemon threads with a bounded queue: they never keep the JVM alive,
+ * and refreshes beyond the queue are dropped, to be tried again by a later build. Whenever the
+ * last pending refresh is done the cache is saved, so that the results reach the next build even
+ * if the current one already saved the cache.
+ */
+class BackgroundRefresher {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(BackgroundRefresher.class);
+
+  static final int THREADS = 2;
+  static final int MAX_QUEUED = 256;
+
+  private final PersistentLookupCache cache;
+  private final Executor executor;
+  private final Set<String> pending = ConcurrentHashMap.newKeySet();
+  private final AtomicInteger running = new AtomicInteger();
+
+  BackgroundRefresher(PersistentLookupCache cache) {
+    this(cache, newExecutor());
+  }
+
+  BackgroundRefresher(PersistentLookupCache cache, Executor executor) {
+    this.cache = cache;
+    this.executor = executor;
+  }
+
+  /**
+   * Schedules <code>refresh</code> of <code>uri</code> unless one is pending already or the queue
+   * is full.
+   */
+  void refresh(String uri, Runnable refresh) {
+    if (!pending.add(uri)) {
+      return;
+    }
+    running.incrementAndGet();
+    try {
+      executor.execute(() -> run(uri, refresh));
+    } catch (RejectedExecutionException e) {
+      LOGGER.debug(String.format("Too many refreshes pending, skipping '%s'.", uri));
+      done(uri);
+    }
+  }
+
+  private void run(String uri, Runnable refresh) {
+    try {
+      refresh.run();
+    } catch (RuntimeException e) {
+      LOGGER.debug(String.format("Refresh of '%s' failed.", uri), e);
+    } finally {
+      done(uri);
+    }
+  }
+
+  private void done(String uri) {
+    pending.remove(uri);
+    if (running.decrementAndGet() == 0) {
+      try {
+        cache.save();
+      } catch (IOException e) {
+        LOGGER.debug("Unable to save refreshed lookups.", e);
+      }
+    }
+  }
+
+  private static Executor newExecutor() {
+    ThreadPoolExecutor executor = new ThreadPoolExecutor(THREADS, THREADS, 30, TimeUnit.SECONDS,
+        new LinkedBlockingQueue<>(MAX_QUEUED), BackgroundRefresher::newThread);
+    executor.allowCoreThreadTimeOut(true);
+    return executor;
+  }
+
+  private static Thread newThread(Runnable r) {
+    Thread t = new Thread(r, "bomsearch-refresh");
+    t.setDaemon(true);
+    return t;
+  }
+}
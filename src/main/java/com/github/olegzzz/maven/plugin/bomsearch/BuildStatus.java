@@ -0,0 +1,229 @@
+package com.github.olegzzz.maven.plugin.bomsearch;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+import javax.annotation.Nullable;
+
+/**
+ * Everything an incremental execution keeps for the next one: the BOMs found, the fingerprint of
+ * the inputs they were found for and the lookup result of every group along with the time it was
+ * looked up.
+ *
+ * <p>The file is read with a single read and written to a temporary file that then replaces the
+ * previous one, so it is either complete or absent. Layout: magic, version, payload length, CRC32
+ * of the payload, payload.
+ */
+class BuildStatus {
+
+  private static final int MAGIC = 0x424f4d53; // "BOMS"
+  private static final int VERSION = 3;
+  private static final int HEADER_SIZE = 4 + 1 + 4 + 8;
+
+  private static final int HAS_BOMS = 1;
+  private static final int HAS_INPUT_HASH = 2;
+  private static final int HAS_GROUPS = 4;
+
+  @Nullable
+  private List<DependencyModel> boms;
+  @Nullable
+  private String inputHash;
+  @Nullable
+  private String repository;
+  private Map<String, List<String>> groups = Collections.emptyMap();
+  private Map<String, Long> lookedUpAt = Collections.emptyMap();
+
+  /**
+   * BOMs found by the last search, null if there was none.
+   */
+  @Nullable
+  List<DependencyModel> getBoms() {
+    return boms;
+  }
+
+  void setBoms(Collection<DependencyModel> boms) {
+    this.boms = Collections.unmodifiableList(new ArrayList<>(boms));
+  }
+
+  @Nullable
+  String getInputHash() {
+    return inputHash;
+  }
+
+  void setInputHash(@Nullable String inputHash) {
+    this.inputHash = inputHash;
+  }
+
+  /**
+   * Returns lookup results by group, empty unless they were recorded for <code>repository</code>.
+   */
+  Map<String, List<String>> getGroups(String repository) {
+    return repository.equals(this.repository) ? groups : Collections.emptyMap();
+  }
+
+  /**
+   * Returns the time in milliseconds since the epoch <code>group</code> was looked up at, 0 if
+   * unknown.
+   */
+  long getLookedUpAt(String group) {
+    return lookedUpAt.getOrDefault(group, 0L);
+  }
+
+  /**
+   * Records lookup results by group, all looked up just now.
+   */
+  void setGroups(String repository, Map<String, List<String>> groups) {
+    long now = System.currentTimeMillis();
+    Map<String, Long> times = new LinkedHashMap<>();
+    groups.keySet().forEach(group -> times.put(group, now));
+    setGroups(repository, groups, times);
+  }
+
+  /**
+   * Records lookup results by group along with the time each of them was looked up at.
+   */
+  void setGroups(String repository, Map<String, List<String>> groups,
+      Map<String, Long> lookedUpAt) {
+    this.repository = repository;
+    this.groups = Collections.unmodifiableMap(new LinkedHashMap<>(groups));
+    this.lookedUpAt = Collections.unmodifiableMap(new LinkedHashMap<>(lookedUpAt));
+  }
+
+  /**
+   * Reads the status from <code>file</code>.
+   *
+   * @throws IOException if the file cannot be read, has an unknown version or is corrupt
+   */
+  static BuildStatus read(Path file) throws IOException {
+    ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+    if (buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC) {
+      throw new IOException("Unsupported status file format.");
+    }
+    if (buffer.get() != VERSION) {
+      throw new IOException("Unsupported status file format.");
+    }
+    int length = buffer.getInt();
+    long checksum = buffer.getLong();
+    if (length != buffer.remaining()) {
+      throw new IOException("Truncated status file.");
+    }
+    CRC32 crc = new CRC32();
+    crc.update(buffer.array(), HEADER_SIZE, length);
+    if (crc.getValue() != checksum) {
+      throw new IOException("Status file checksum mismatch.");
+    }
+
+    DataInputStream in =
+        new DataInputStream(new ByteArrayInputStream(buffer.array(), HEADER_SIZE, length));
+    BuildStatus status = new BuildStatus();
+    int flags = in.readUnsignedByte();
+    if ((flags & HAS_BOMS) != 0) {
+      int count = in.readInt();
+      List<DependencyModel> boms = new ArrayList<>(count);
+      for (int i = 0; i < count; i++) {
+        boms.add(new DependencyModel(in.readUTF(), in.readUTF()));
+      }
+      status.boms = Collections.unmodifiableList(boms);
+    }
+    if ((flags & HAS_INPUT_HASH) != 0) {
+      status.inputHash = in.readUTF();
+    }
+    if ((flags & HAS_GROUPS) != 0) {
+      status.repository = in.readUTF();
+      int count = in.readInt();
+      Map<String, List<String>> groups = new LinkedHashMap<>(count * 2);
+      Map<String, Long> lookedUpAt = new LinkedHashMap<>(count * 2);
+      for (int i = 0; i < count; i++) {
+        String group = in.readUTF();
+        groups.put(group, readStrings(in));
+        lookedUpAt.put(group, in.readLong());
+      }
+      status.groups = Collections.unmodifiableMap(groups);
+      status.lookedUpAt = Collections.unmodifiableMap(lookedUpAt);
+    }
+    return status;
+  }
+
+  /**
+   * Writes the status to <code>file</code>, replacing it atomically under the file's lock.
+   */
+  void write(Path file) throws IOException {
+    ByteArrayOutputStream payload = new ByteArrayOutputStream();
+    DataOutputStream out = new DataOutputStream(payload);
+    out.writeByte((boms != null ? HAS_BOMS : 0) | (inputHash != null ? HAS_INPUT_HASH : 0)
+        | (repository != null ? HAS_GROUPS : 0));
+    if (boms != null) {
+      out.writeInt(boms.size());
+      for (DependencyModel bom : boms) {
+        out.writeUTF(bom.getGroup());
+        out.writeUTF(bom.getArtifact());
+      }
+    }
+    if (inputHash != null) {
+      out.writeUTF(inputHash);
+    }
+    if (repository != null) {
+      out.writeUTF(repository);
+      out.writeInt(groups.size());
+      for (Map.Entry<String, List<String>> e : groups.entrySet()) {
+        out.writeUTF(e.getKey());
+        writeStrings(out, e.getValue());
+        out.writeLong(getLookedUpAt(e.getKey()));
+      }
+    }
+    out.flush();
+
+    CRC32 crc = new CRC32();
+    crc.update(payload.toByteArray());
+    Path dir = file.toAbsolutePath().getParent();
+    FileLocks.withLock(file, () -> {
+      Path tmp = Files.createTempFile(dir, "status", ".tmp");
+      try {
+        try (DataOutputStream fileOut = new DataOutputStream(Files.newOutputStream(tmp))) {
+          fileOut.writeInt(MAGIC);
+          fileOut.writeByte(VERSION);
+          fileOut.writeInt(payload.size());
+          fileOut.writeLong(crc.getValue());
+          payload.writeTo(fileOut);
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING,
+            StandardCopyOption.ATOMIC_MOVE);
+      } finally {
+        Files.deleteIfExists(tmp);
+      }
+      return null;
+    });
+  }
+
+  private static List<String> readStrings(DataInputStream in) throws IOException {
+    int count = in.readUnsignedShort();
+    if (count == 0) {
+      return Collections.emptyList();
+    }
+    List<String> res = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      res.add(in.readUTF());
+    }
+    return Collections.unmodifiableList(res);
+  }
+
+  private static void writeStrings(DataOutputStream out, List<String> strings) throws IOException {
+    out.writeShort(strings.size());
+    for (String s : strings) {
+      out.writeUTF(s);
+    }
+  }
+}
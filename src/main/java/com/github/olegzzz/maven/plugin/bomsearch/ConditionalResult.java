@@ -0,0 +1,155 @@
+package com.github.olegzzz.maven.plugin.bomsearch;
+
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nullable;
+import org.jsoup.nodes.Document;
+
+/**
+ * Outcome of a conditional group listing request: either the listing has not changed since the
+ * validators sent along were issued, or it was loaded again together with its new validators,
+ * or the repository asked to slow down.
+ */
+class ConditionalResult {
+
+  private static final ConditionalResult NOT_MODIFIED =
+      new ConditionalResult(null, null, null, true, 0, -1, true);
+
+  @Nullable
+  private final Document document;
+  @Nullable
+  private final String etag;
+  @Nullable
+  private final String lastModified;
+  private final boolean notModified;
+  private final long bytes;
+  private final long retryAfterMillis;
+  private final boolean cacheable;
+
+  private ConditionalResult(@Nullable Document document, @Nullable String etag,
+      @Nullable String lastModified, boolean notModified, long bytes, long retryAfterMillis,
+      boolean cacheable) {
+    this.document = document;
+    this.etag = etag;
+    this.lastModified = lastModified;
+    this.notModified = notModified;
+    this.bytes = bytes;
+    this.retryAfterMillis = retryAfterMillis;
+    this.cacheable = cacheable;
+  }
+
+  static ConditionalResult notModified() {
+    return NOT_MODIFIED;
+  }
+
+  /**
+   * A freshly loaded listing, <code>document</code> is null if it could not be loaded.
+   */
+  static ConditionalResult of(@Nullable Document document, @Nullable String etag,
+      @Nullable String lastModified) {
+    return of(document, etag, lastModified, 0);
+  }
+
+  /**
+   * A freshly loaded listing that took <code>bytes</code> of response body to read.
+   */
+  static ConditionalResult of(@Nullable Document document, @Nullable String etag,
+      @Nullable String lastModified, long bytes) {
+    return new ConditionalResult(document, etag, lastModified, false, bytes, -1, true);
+  }
+
+  /**
+   * The repository answered that there is no such group. That is as final as a listing without
+   * any BOM, so it is an empty listing rather than a failed lookup.
+   */
+  static ConditionalResult missing(String uri) {
+    return of(Document.createShell(uri), null, null);
+  }
+
+  /**
+   * A listing put together from the local repository. It lacks the BOMs that were never
+   * downloaded, so it must not stand in for the remote listing in the persistent cache.
+   */
+  static ConditionalResult local(Document document) {
+    return new ConditionalResult(document, null, null, false, 0, -1, false);
+  }
+
+  /**
+   * The repository refused the request with 429 or 503.
+   *
+   * @param retryAfterMillis delay the repository asked for, 0 if it did not ask for one
+   */
+  static ConditionalResult throttled(long retryAfterMillis) {
+    return new ConditionalResult(null, null, null, false, 0, Math.max(0, retryAfterMillis),
+        true);
+  }
+
+  boolean isNotModified() {
+    return notModified;
+  }
+
+  /**
+   * Tells whether the listing may be kept in the persistent cache under its group uri.
+   */
+  boolean isCacheable() {
+    return cacheable;
+  }
+
+  boolean isThrottled() {
+    return retryAfterMillis >= 0;
+  }
+
+  long getRetryAfterMillis() {
+    return Math.max(0, retryAfterMillis);
+  }
+
+  /**
+   * Tells whether <code>status</code> is a response code repositories use to throttle clients.
+   */
+  static boolean isThrottling(int status) {
+    return status == 429 || status == 503;
+  }
+
+  /**
+   * Tells whether <code>status</code> says that the requested group does not exist.
+   */
+  static boolean isMissing(int status) {
+    return status == 404 || status == 410;
+  }
+
+  /**
+   * Parses the delay of a <code>Retry-After</code> header given in seconds, 0 if there is none.
+   * Dates are not supported and treated as absent.
+   */
+  static long parseRetryAfter(@Nullable String value) {
+    if (value == null) {
+      return 0;
+    }
+    try {
+      return TimeUnit.SECONDS.toMillis(Math.max(0, Long.parseLong(value.trim())));
+    } catch (NumberFormatException e) {
+      return 0;
+    }
+  }
+
+  @Nullable
+  Document getDocument() {
+    return document;
+  }
+
+  @Nullable
+  String getEtag() {
+    return etag;
+  }
+
+  @Nullable
+  String getLastModified() {
+    return lastModified;
+  }
+
+  /**
+   * Number of response body bytes read, 0 if nothing was downloaded.
+   */
+  long getBytes() {
+    return bytes;
+  }
+}
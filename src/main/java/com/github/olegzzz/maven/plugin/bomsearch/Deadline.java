@@ -0,0 +1,52 @@
+package com.github.olegzzz.maven.plugin.bomsearch;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Point in time a piece of work has to be done by.
+ */
+class Deadline {
+
+  /**
+   * A deadline that never expires.
+   */
+  static final Deadline NONE = new Deadline(0, false);
+
+  private final long nanos;
+  private final boolean bounded;
+
+  private Deadline(long nanos, boolean bounded) {
+    this.nanos = nanos;
+    this.bounded = bounded;
+  }
+
+  /**
+   * Returns a deadline <code>millis</code> from now, {@link #NONE} if <code>millis</code> is not
+   * positive.
+   */
+  static Deadline in(long millis) {
+    return millis > 0
+        ? new Deadline(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis), true)
+        : NONE;
+  }
+
+  boolean isExpired() {
+    return bounded && System.nanoTime() - nanos >= 0;
+  }
+
+  /**
+   * Returns the time left in milliseconds, {@link Long#MAX_VALUE} if unbounded.
+   */
+  long remainingMillis() {
+    return bounded
+        ? Math.max(0, TimeUnit.NANOSECONDS.toMillis(nanos - System.nanoTime()))
+        : Long.MAX_VALUE;
+  }
+
+  /**
+   * Returns the time left in nanoseconds, {@link Long#MAX_VALUE} if unbounded.
+   */
+  long remainingNanos() {
+    return bounded ? Math.max(0, nanos - System.nanoTime()) : Long.MAX_VALUE;
+  }
+}
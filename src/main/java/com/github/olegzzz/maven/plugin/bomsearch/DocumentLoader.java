@@ -1,7 +1,30 @@
 package com.github.olegzzz.maven.plugin.bomsearch;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import javax.annotation.Nullable;
 import org.jsoup.nodes.Document;
 
 interface DocumentLoader {
   Document loadGroupByUri(String uri);
+
+  /**
+   * Loads a group listing unless it is unchanged since <code>etag</code> and
+   * <code>lastModified</code> were issued. Loaders without support for conditional requests
+   * always load the listing.
+   */
+  default ConditionalResult loadGroupByUri(String uri, @Nullable String etag,
+      @Nullable String lastModified) {
+    return ConditionalResult.of(loadGroupByUri(uri), null, null);
+  }
+
+  /**
+   * Asynchronous variant of {@link #loadGroupByUri(String, String, String)}. Blocking loaders run
+   * the request on <code>executor</code>; loaders that do not block, or are backed by a
+   * non-blocking client, complete the future without occupying one of its threads.
+   */
+  default CompletableFuture<ConditionalResult> loadGroupByUriAsync(String uri,
+      @Nullable String etag, @Nullable String lastModified, Executor executor) {
+    return CompletableFuture.supplyAsync(() -> loadGroupByUri(uri, etag, lastModified), executor);
+  }
 }
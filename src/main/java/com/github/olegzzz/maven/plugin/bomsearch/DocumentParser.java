@@ -2,26 +2,228 @@ package com.github.olegzzz.maven.plugin.bomsearch;
 
 import static java.util.stream.Collectors.toList;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import javax.annotation.Nullable;
 import org.jsoup.nodes.Document;
 
 public class DocumentParser {
 
+  /**
+   * Returned by {@link #parseArtifactsIds(String)} if the listing could not be loaded, so that
+   * callers can tell a failed lookup from a group without BOMs by identity.
+   */
+  static final List<String> FAILED = Collections.unmodifiableList(new ArrayList<>(0));
+
   private final DocumentLoader loader;
+  @Nullable
+  private final PersistentLookupCache cache;
+  @Nullable
+  private final SearchMetrics metrics;
+  @Nullable
+  private final BackgroundRefresher refresher;
+  private boolean revalidateAll;
 
   public DocumentParser(DocumentLoader documentLoader) {
+    this(documentLoader, null);
+  }
+
+  /**
+   * Creates a parser that answers from <code>cache</code> when possible and stores every
+   * successfully loaded listing in it. Expired entries are revalidated with a conditional
+   * request, so an unchanged listing is not downloaded again, and answer the lookup when the
+   * listing cannot be loaded at all.
+   */
+  DocumentParser(DocumentLoader documentLoader, @Nullable PersistentLookupCache cache) {
+    this(documentLoader, cache, null);
+  }
+
+  /**
+   * Creates a parser that additionally records latency, size and outcome of every lookup in
+   * <code>metrics</code>.
+   */
+  DocumentParser(DocumentLoader documentLoader, @Nullable PersistentLookupCache cache,
+      @Nullable SearchMetrics metrics) {
+    this(documentLoader, cache, metrics, null);
+  }
+
+  /**
+   * Creates a parser that, given a <code>refresher</code>, answers with a recently expired cache
+   * entry right away and leaves loading the listing to the refresher.
+   */
+  DocumentParser(DocumentLoader documentLoader, @Nullable PersistentLookupCache cache,
+      @Nullable SearchMetrics metrics, @Nullable BackgroundRefresher refresher) {
     this.loader = documentLoader;
+    this.cache = cache;
+    this.metrics = metrics;
+    this.refresher = refresher;
+  }
+
+  /**
+   * With <code>revalidateAll</code> set, no lookup is answered from the cache without asking the
+   * repository: fresh entries are revalidated or reloaded just like expired ones. Used to refresh
+   * the cache.
+   */
+  void setRevalidateAll(boolean revalidateAll) {
+    this.revalidateAll = revalidateAll;
   }
 
   /**
    * Converts a {@link Document} into a list of artifact ids.
    *
    * @param uri full uri to a group on a maven repo, e.g. `https://repo.maven.apache.org/maven2/org/springframework/`
-   * @return list of artifactIds of null
+   * @return list of artifactIds, {@link #FAILED} if the listing could not be loaded
    */
   public List<String> parseArtifactsIds(String uri) {
-    final Document document = loader.loadGroupByUri(uri);
+    if (cache == null && metrics == null) {
+      return parse(loader.loadGroupByUri(uri));
+    }
+    long start = System.nanoTime();
+    List<String> cached = fromCache(uri, start);
+    if (cached != null) {
+      return cached;
+    }
+
+    PersistentLookupCache.Entry stale = cache == null ? null : cache.peek(uri);
+    List<String> served = serveStale(uri, stale, start);
+    if (served != null) {
+      return served;
+    }
+    ConditionalResult result = stale == null
+        ? loader.loadGroupByUri(uri, null, null)
+        : loader.loadGroupByUri(uri, stale.getEtag(), stale.getLastModified());
+    if (result.isNotModified()) {
+      List<String> revalidated = revalidate(uri, result, start);
+      if (revalidated != null) {
+        return revalidated;
+      }
+      ConditionalResult reloaded = loader.loadGroupByUri(uri, null, null);
+      return complete(uri, stale, reloaded, result.getBytes() + reloaded.getBytes(), start);
+    }
+    return complete(uri, stale, result, result.getBytes(), start);
+  }
+
+  /**
+   * Asynchronous variant of {@link #parseArtifactsIds(String)}. Lookups answered from the cache
+   * complete right away, all others complete when the loader does.
+   *
+   * @param executor executor blocking loaders run their requests on
+   */
+  public CompletableFuture<List<String>> parseArtifactsIdsAsync(String uri, Executor executor) {
+    if (cache == null && metrics == null) {
+      return loader.loadGroupByUriAsync(uri, null, null, executor)
+          .thenApply(result -> parse(result.getDocument()));
+    }
+    long start = System.nanoTime();
+    List<String> cached = fromCache(uri, start);
+    if (cached != null) {
+      return CompletableFuture.completedFuture(cached);
+    }
+
+    PersistentLookupCache.Entry stale = cache == null ? null : cache.peek(uri);
+    List<String> served = serveStale(uri, stale, start);
+    if (served != null) {
+      return CompletableFuture.completedFuture(served);
+    }
+    CompletableFuture<ConditionalResult> load = stale == null
+        ? loader.loadGroupByUriAsync(uri, null, null, executor)
+        : loader.loadGroupByUriAsync(uri, stale.getEtag(), stale.getLastModified(), executor);
+    return load.thenCompose(result -> {
+      if (result.isNotModified()) {
+        List<String> revalidated = revalidate(uri, result, start);
+        if (revalidated != null) {
+          return CompletableFuture.completedFuture(revalidated);
+        }
+        return loader.loadGroupByUriAsync(uri, null, null, executor).thenApply(reloaded ->
+            complete(uri, stale, reloaded, result.getBytes() + reloaded.getBytes(), start));
+      }
+      return CompletableFuture.completedFuture(
+          complete(uri, stale, result, result.getBytes(), start));
+    });
+  }
+
+  @Nullable
+  private List<String> fromCache(String uri, long start) {
+    List<String> cached = cache == null || revalidateAll ? null : cache.get(uri);
+    if (cached != null) {
+      record(uri, SearchMetrics.Source.CACHE, start, 0);
+    }
+    return cached;
+  }
+
+  /**
+   * Returns the artifact ids of <code>stale</code> and schedules a refresh, if there is a
+   * refresher and the entry expired recently enough.
+   */
+  @Nullable
+  private List<String> serveStale(String uri, @Nullable PersistentLookupCache.Entry stale,
+      long start) {
+    if (refresher == null || revalidateAll || stale == null
+        || !cache.isServableWhileStale(stale)) {
+      return null;
+    }
+    refresher.refresh(uri, () -> refresh(uri, stale));
+    record(uri, SearchMetrics.Source.STALE, start, 0);
+    return stale.getArtifactIds();
+  }
+
+  /**
+   * Revalidates or reloads the listing of <code>uri</code> and stores the result in the cache.
+   */
+  private void refresh(String uri, PersistentLookupCache.Entry stale) {
+    ConditionalResult result =
+        loader.loadGroupByUri(uri, stale.getEtag(), stale.getLastModified());
+    if (result.isNotModified()) {
+      if (cache.revalidate(uri) != null) {
+        return;
+      }
+      result = loader.loadGroupByUri(uri, null, null);
+    }
+    Document document = result.getDocument();
+    if (document != null && result.isCacheable()) {
+      cache.put(uri, parse(document), result.getEtag(), result.getLastModified());
+    }
+  }
+
+  /**
+   * Returns the cached artifact ids confirmed by a not modified <code>result</code>, null if the
+   * entry is gone meanwhile and the listing has to be loaded after all.
+   */
+  @Nullable
+  private List<String> revalidate(String uri, ConditionalResult result, long start) {
+    List<String> revalidated = cache == null ? null : cache.revalidate(uri);
+    if (revalidated != null) {
+      record(uri, SearchMetrics.Source.REVALIDATED, start, result.getBytes());
+    }
+    return revalidated;
+  }
+
+  private List<String> complete(String uri, @Nullable PersistentLookupCache.Entry stale,
+      ConditionalResult result, long bytes, long start) {
+    Document document = result.getDocument();
+    if (document == null && stale != null) {
+      record(uri, SearchMetrics.Source.STALE, start, bytes);
+      return stale.getArtifactIds();
+    }
+    List<String> artifactIds = parse(document);
+    if (document != null && cache != null && result.isCacheable()) {
+      cache.put(uri, artifactIds, result.getEtag(), result.getLastModified());
+    }
+    record(uri, document != null ? SearchMetrics.Source.LOADED : SearchMetrics.Source.FAILED,
+        start, bytes);
+    return artifactIds;
+  }
+
+  private void record(String uri, SearchMetrics.Source source, long start, long bytes) {
+    if (metrics != null) {
+      metrics.lookup(uri, source, System.nanoTime() - start, bytes);
+    }
+  }
+
+  private List<String> parse(@Nullable Document document) {
     if (document != null) {
       return document
           .select(SearchMojo.TAG_A)
@@ -31,7 +233,7 @@ public class DocumentParser {
           .map(SearchMojo.REMOVE_SLASH)
           .collect(toList());
     } else {
-      return Collections.emptyList();
+      return FAILED;
     }
   }
 }
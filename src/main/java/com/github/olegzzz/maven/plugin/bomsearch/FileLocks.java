@@ -0,0 +1,83 @@
+package com.github.olegzzz.maven.plugin.bomsearch;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Exclusive locks on persisted plugin state, shared by the threads of a parallel build as well
+ * as by concurrent builds on the same machine.
+ *
+ * <p>A lock on <code>file</code> is held on a sibling <code>file.lock</code>, so that the file
+ * itself can still be replaced atomically while locked. Files are meant to be read without a
+ * lock, a reader sees either the previous or the next complete version.
+ */
+final class FileLocks {
+
+  private static final long TIMEOUT_MILLIS = TimeUnit.SECONDS.toMillis(30);
+  private static final long RETRY_MILLIS = 10;
+
+  /**
+   * File locks are held by the whole JVM, so threads of the same build queue up here first.
+   */
+  private static final ConcurrentMap<Path, ReentrantLock> LOCAL = new ConcurrentHashMap<>();
+
+  private FileLocks() {
+  }
+
+  @FunctionalInterface
+  interface IoAction<T> {
+
+    T run() throws IOException;
+  }
+
+  /**
+   * Runs <code>action</code> while holding the lock on <code>file</code>.
+   *
+   * @throws IOException if the action fails or the lock is not acquired within 30 seconds
+   */
+  static <T> T withLock(Path file, IoAction<T> action) throws IOException {
+    Path lockFile = file.toAbsolutePath().normalize()
+        .resolveSibling(file.getFileName() + ".lock");
+    ReentrantLock local = LOCAL.computeIfAbsent(lockFile, k -> new ReentrantLock());
+    local.lock();
+    try {
+      Files.createDirectories(lockFile.getParent());
+      try (FileChannel channel = FileChannel.open(lockFile,
+          StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+          FileLock ignored = acquire(channel, lockFile)) {
+        return action.run();
+      }
+    } finally {
+      local.unlock();
+    }
+  }
+
+  private static FileLock acquire(FileChannel channel, Path lockFile) throws IOException {
+    long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(TIMEOUT_MILLIS);
+    while (true) {
+      FileLock lock = channel.tryLock();
+      if (lock != null) {
+        return lock;
+      }
+      if (System.nanoTime() > deadline) {
+        throw new IOException(String.format("Timed out waiting for lock '%s'.", lockFile));
+      }
+      try {
+        Thread.sleep(RETRY_MILLIS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new InterruptedIOException(
+            String.format("Interrupted waiting for lock '%s'.", lockFile));
+      }
+    }
+  }
+}
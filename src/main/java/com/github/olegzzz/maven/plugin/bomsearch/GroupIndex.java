@@ -0,0 +1,199 @@
+package com.github.olegzzz.maven.plugin.bomsearch;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.function.Predicate;
+
+/**
+ * Read-only, memory-mapped index of groupIds to their BOM artifact ids.
+ *
+ * <p>Groups are sorted, so a lookup is a binary search over the offset table that decodes only
+ * the keys it visits. Groups without BOMs are not stored: for an index built from a complete
+ * repository mirror, a missing group simply has no BOM.
+ *
+ * <p>Layout: magic, version, group count, one offset per group, then per group a length-prefixed
+ * UTF-8 groupId followed by the count and length-prefixed UTF-8 artifact ids.
+ */
+class GroupIndex {
+
+  private static final int MAGIC = 0x424f4d49; // "BOMI"
+  private static final int VERSION = 1;
+  private static final int HEADER_SIZE = 4 + 1 + 4;
+
+  private final ByteBuffer buffer;
+  private final int size;
+
+  private GroupIndex(ByteBuffer buffer) throws IOException {
+    this.buffer = buffer;
+    if (buffer.getInt(0) != MAGIC || buffer.get(4) != VERSION) {
+      throw new IOException("Unsupported index format.");
+    }
+    this.size = buffer.getInt(5);
+  }
+
+  /**
+   * Maps the index at <code>file</code> into memory.
+   */
+  static GroupIndex open(Path file) throws IOException {
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+      return new GroupIndex(buffer);
+    }
+  }
+
+  int size() {
+    return size;
+  }
+
+  /**
+   * Returns BOM artifact ids of <code>groupId</code>, empty if the group has none.
+   */
+  List<String> lookup(String groupId) {
+    int low = 0;
+    int high = size - 1;
+    while (low <= high) {
+      int mid = (low + high) >>> 1;
+      int offset = buffer.getInt(HEADER_SIZE + mid * 4);
+      int cmp = readString(offset).compareTo(groupId);
+      if (cmp < 0) {
+        low = mid + 1;
+      } else if (cmp > 0) {
+        high = mid - 1;
+      } else {
+        return readArtifactIds(offset);
+      }
+    }
+    return Collections.emptyList();
+  }
+
+  private List<String> readArtifactIds(int offset) {
+    int pos = offset + 2 + Short.toUnsignedInt(buffer.getShort(offset));
+    int count = Short.toUnsignedInt(buffer.getShort(pos));
+    pos += 2;
+    List<String> res = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      String id = readString(pos);
+      res.add(id);
+      pos += 2 + Short.toUnsignedInt(buffer.getShort(pos));
+    }
+    return res;
+  }
+
+  private String readString(int offset) {
+    int length = Short.toUnsignedInt(buffer.getShort(offset));
+    byte[] bytes = new byte[length];
+    ByteBuffer view = buffer.duplicate();
+    // Through Buffer, as ByteBuffer.position(int) does not exist on Java 8.
+    ((Buffer) view).position(offset + 2);
+    view.get(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Writes an index of <code>groups</code> to <code>file</code>, replacing it atomically under the
+   * file's lock.
+   */
+  static void write(Path file, SortedMap<String, List<String>> groups) throws IOException {
+    ByteArrayOutputStream records = new ByteArrayOutputStream();
+    DataOutputStream recordsOut = new DataOutputStream(records);
+    int[] offsets = new int[groups.size()];
+    int base = HEADER_SIZE + groups.size() * 4;
+    int i = 0;
+    for (Map.Entry<String, List<String>> e : groups.entrySet()) {
+      offsets[i++] = base + recordsOut.size();
+      writeString(recordsOut, e.getKey());
+      recordsOut.writeShort(e.getValue().size());
+      for (String id : e.getValue()) {
+        writeString(recordsOut, id);
+      }
+    }
+
+    Path dir = file.toAbsolutePath().getParent();
+    FileLocks.withLock(file, () -> {
+      Path tmp = Files.createTempFile(dir, "index", ".tmp");
+      try {
+        try (DataOutputStream out =
+            new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+          out.writeInt(MAGIC);
+          out.writeByte(VERSION);
+          out.writeInt(groups.size());
+          for (int offset : offsets) {
+            out.writeInt(offset);
+          }
+          records.writeTo(out);
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING,
+            StandardCopyOption.ATOMIC_MOVE);
+      } finally {
+        Files.deleteIfExists(tmp);
+      }
+      return null;
+    });
+  }
+
+  private static void writeString(DataOutputStream out, String s) throws IOException {
+    byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+    out.writeShort(bytes.length);
+    out.write(bytes);
+  }
+
+  /**
+   * Collects BOM artifacts of every group found in a repository directory tree, e.g. a local
+   * repository or a repository mirror on disk.
+   */
+  static SortedMap<String, List<String>> scan(Path root) throws IOException {
+    return scan(root, name -> name.contains(SearchMojo.BOM_MARKER));
+  }
+
+  /**
+   * Collects the artifacts accepted by <code>artifactFilter</code> of every group found in a
+   * repository directory tree. Groups without any accepted artifact are left out.
+   */
+  static SortedMap<String, List<String>> scan(Path root, Predicate<String> artifactFilter)
+      throws IOException {
+    SortedMap<String, List<String>> groups = new TreeMap<>();
+    Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+      @Override
+      public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs)
+          throws IOException {
+        if (dir.equals(root)) {
+          return FileVisitResult.CONTINUE;
+        }
+        String name = dir.getFileName().toString();
+        if (name.startsWith(".") || LocalRepositoryDocumentLoader.hasPom(dir)) {
+          return FileVisitResult.SKIP_SUBTREE;
+        }
+        if (artifactFilter.test(name)
+            && LocalRepositoryDocumentLoader.isArtifactDirectory(dir)) {
+          String groupId = root.relativize(dir.getParent()).toString()
+              .replace(dir.getFileSystem().getSeparator(), ".");
+          groups.computeIfAbsent(groupId, k -> new ArrayList<>()).add(name);
+          return FileVisitResult.SKIP_SUBTREE;
+        }
+        return FileVisitResult.CONTINUE;
+      }
+    });
+    groups.values().forEach(Collections::sort);
+    return groups;
+  }
+}
@@ -0,0 +1,77 @@
+package com.github.olegzzz.maven.plugin.bomsearch;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Prefix tree of group ids split at dots, counting the dependencies below every node.
+ *
+ * <p>Sibling groups like <code>com.fasterxml.jackson.core</code> and
+ * <code>com.fasterxml.jackson.datatype</code> are often covered by a single BOM published in
+ * their common parent group. The tree finds such parents, so that each is looked up once no
+ * matter how many of its groups are used.
+ */
+class GroupTrie {
+
+  /**
+   * Prefixes shorter than this, like <code>org.apache</code> or <code>io</code>, are never looked
+   * up. Their listings are huge and rarely hold a BOM covering the groups below.
+   */
+  static final int MIN_PREFIX_DEPTH = 3;
+
+  private final Node root = new Node();
+
+  static GroupTrie of(Collection<String> groups) {
+    GroupTrie trie = new GroupTrie();
+    groups.forEach(trie::add);
+    return trie;
+  }
+
+  /**
+   * Counts one dependency on <code>group</code>.
+   */
+  void add(String group) {
+    Node node = root;
+    node.count++;
+    for (String segment : group.split("\\.")) {
+      node = node.children.computeIfAbsent(segment, k -> new Node());
+      node.count++;
+    }
+    node.group = true;
+  }
+
+  /**
+   * Returns the prefixes that at least two distinct groups branch off from and that are shared
+   * by at least <code>minOccurrence</code> dependencies, parents before children.
+   */
+  List<String> sharedPrefixes(int minOccurrence) {
+    List<String> res = new ArrayList<>();
+    collect(root, "", 0, minOccurrence, res);
+    return res;
+  }
+
+  private static void collect(Node node, String prefix, int depth, int minOccurrence,
+      List<String> res) {
+    if (node.count < minOccurrence) {
+      return;
+    }
+    int branches = node.children.size() + (node.group ? 1 : 0);
+    if (depth >= MIN_PREFIX_DEPTH && branches >= 2) {
+      res.add(prefix);
+    }
+    for (Map.Entry<String, Node> e : node.children.entrySet()) {
+      String child = prefix.isEmpty() ? e.getKey() : prefix + '.' + e.getKey();
+      collect(e.getValue(), child, depth + 1, minOccurrence, res);
+    }
+  }
+
+  private static class Node {
+
+    private final Map<String, Node> children = new TreeMap<>();
+    private int count;
+    private boolean group;
+  }
+}
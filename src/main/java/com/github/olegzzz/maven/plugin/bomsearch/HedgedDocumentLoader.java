@@ -0,0 +1,238 @@
+package com.github.olegzzz.maven.plugin.bomsearch;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.Nullable;
+import org.jsoup.nodes.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Spreads lookups over several repositories serving the same content, e.g. mirrors of Maven
+ * Central.
+ *
+ * <p>A lookup goes to the primary repository first. If it has not answered after the hedge delay,
+ * the same lookup is sent to the next mirror, and so on; a repository that fails hands over to
+ * the next one right away. The first listing or not modified answer wins, the requests still
+ * running elsewhere are interrupted, which makes the loaders close their connections. Group uris
+ * always refer to the primary repository, so caches do not depend on which repository answered.
+ * Validators belong to the primary repository as well: they are only sent to it, and answers of
+ * mirrors come without any.
+ */
+class HedgedDocumentLoader implements DocumentLoader {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(HedgedDocumentLoader.class);
+
+  private final String primaryUrl;
+  private final List<String> mirrorUrls;
+  private final DocumentLoader delegate;
+  private final long hedgeDelayMillis;
+  private final ExecutorService executor;
+  private final ScheduledThreadPoolExecutor timer =
+      new ScheduledThreadPoolExecutor(1, r -> daemon(r, "timer"));
+
+  /**
+   * Creates a loader.
+   *
+   * @param primaryUrl       url of the repository group uris are relative to
+   * @param mirrorUrls       urls of repositories with the same content, in order of preference
+   * @param delegate         loader doing the actual requests
+   * @param hedgeDelayMillis time to wait for an answer before asking the next repository, 0 to
+   *                         ask all at once
+   * @param executor         executor the requests run on
+   */
+  HedgedDocumentLoader(String primaryUrl, List<String> mirrorUrls, DocumentLoader delegate,
+      long hedgeDelayMillis, ExecutorService executor) {
+    this.primaryUrl = withSlash(primaryUrl);
+    List<String> mirrors = new ArrayList<>(mirrorUrls.size());
+    mirrorUrls.forEach(url -> mirrors.add(withSlash(url)));
+    this.mirrorUrls = Collections.unmodifiableList(mirrors);
+    this.delegate = delegate;
+    this.hedgeDelayMillis = hedgeDelayMillis;
+    this.executor = executor;
+    // The timer thread times out when idle, so an unused loader holds no threads.
+    timer.setKeepAliveTime(1, TimeUnit.MINUTES);
+    timer.allowCoreThreadTimeOut(true);
+    timer.setRemoveOnCancelPolicy(true);
+  }
+
+  /**
+   * Returns a pool of up to <code>threads</code> daemon threads for the requests, which time out
+   * when idle.
+   */
+  static ExecutorService newPool(int threads) {
+    ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 1, TimeUnit.MINUTES,
+        new LinkedBlockingQueue<>(), r -> daemon(r, "load"));
+    pool.allowCoreThreadTimeOut(true);
+    return pool;
+  }
+
+  @Nullable
+  @Override
+  public Document loadGroupByUri(String uri) {
+    return loadGroupByUri(uri, null, null).getDocument();
+  }
+
+  @Override
+  public ConditionalResult loadGroupByUri(String uri, @Nullable String etag,
+      @Nullable String lastModified) {
+    if (!uri.startsWith(primaryUrl) || mirrorUrls.isEmpty()) {
+      return delegate.loadGroupByUri(uri, etag, lastModified);
+    }
+    String path = uri.substring(primaryUrl.length());
+    List<String> uris = new ArrayList<>(mirrorUrls.size() + 1);
+    uris.add(uri);
+    mirrorUrls.forEach(url -> uris.add(url + path));
+    Race race = new Race(uris, etag, lastModified);
+    race.startNext();
+    try {
+      return race.result.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      race.cancel(-1);
+      LOGGER.warn(String.format("Lookup of '%s' interrupted.", uri));
+    } catch (ExecutionException e) {
+      LOGGER.warn(String.format("Unable to fetch dependencies for uri '%s' due to '%s'.",
+          uri, e.getCause()));
+    }
+    return ConditionalResult.of(null, null, null);
+  }
+
+  private static String withSlash(String url) {
+    return url.endsWith("/") ? url : url + "/";
+  }
+
+  private static Thread daemon(Runnable r, String name) {
+    Thread t = new Thread(r, "bomsearch-hedge-" + name);
+    t.setDaemon(true);
+    return t;
+  }
+
+  /**
+   * A single lookup sent to one repository after another until one of them answers.
+   */
+  private class Race {
+
+    private final CompletableFuture<ConditionalResult> result = new CompletableFuture<>();
+    private final List<String> uris;
+    @Nullable
+    private final String etag;
+    @Nullable
+    private final String lastModified;
+    private final Future<?>[] requests;
+    private final AtomicInteger next = new AtomicInteger();
+    private final AtomicInteger answered = new AtomicInteger();
+    @Nullable
+    private volatile ConditionalResult lastFailure;
+    @Nullable
+    private volatile Future<?> scheduled;
+
+    Race(List<String> uris, @Nullable String etag, @Nullable String lastModified) {
+      this.uris = uris;
+      this.etag = etag;
+      this.lastModified = lastModified;
+      this.requests = new Future<?>[uris.size()];
+    }
+
+    /**
+     * Sends the lookup to the next repository unless it is decided already or there is none
+     * left, and schedules the one after it.
+     */
+    void startNext() {
+      int i = next.getAndIncrement();
+      if (i >= uris.size() || result.isDone()) {
+        return;
+      }
+      String uri = uris.get(i);
+      if (i > 0) {
+        LOGGER.debug(String.format("Asking '%s' as well.", uri));
+      }
+      synchronized (this) {
+        requests[i] = executor.submit(() -> load(i, uri));
+      }
+      if (result.isDone()) {
+        cancel(-1);
+        return;
+      }
+      if (i + 1 < uris.size()) {
+        if (hedgeDelayMillis > 0) {
+          scheduled = timer.schedule(this::startNext, hedgeDelayMillis, TimeUnit.MILLISECONDS);
+        } else {
+          startNext();
+        }
+      }
+    }
+
+    private void load(int i, String uri) {
+      ConditionalResult answer;
+      try {
+        answer = i == 0
+            ? delegate.loadGroupByUri(uri, etag, lastModified)
+            : withoutValidators(delegate.loadGroupByUri(uri, null, null));
+      } catch (RuntimeException | Error e) {
+        onAnswer(i, null, e);
+        throw e;
+      }
+      onAnswer(i, answer, null);
+    }
+
+    private void onAnswer(int i, @Nullable ConditionalResult answer, @Nullable Throwable error) {
+      if (answer != null && (answer.getDocument() != null || answer.isNotModified())) {
+        if (result.complete(answer)) {
+          cancel(i);
+        }
+        return;
+      }
+      if (answer != null) {
+        lastFailure = answer;
+      }
+      if (answered.incrementAndGet() == uris.size()) {
+        ConditionalResult failure = lastFailure;
+        if (failure != null) {
+          result.complete(failure);
+        } else {
+          result.completeExceptionally(error);
+        }
+      } else {
+        startNext();
+      }
+    }
+
+    /**
+     * Stops asking further repositories and interrupts all requests but the one of
+     * <code>winner</code>.
+     */
+    synchronized void cancel(int winner) {
+      Future<?> pending = scheduled;
+      if (pending != null) {
+        pending.cancel(false);
+      }
+      for (int j = 0; j < requests.length; j++) {
+        if (j != winner && requests[j] != null) {
+          requests[j].cancel(true);
+        }
+      }
+    }
+  }
+
+  /**
+   * Drops the validators of an answer from a mirror, they mean nothing to the primary repository
+   * the next request with them goes to.
+   */
+  private static ConditionalResult withoutValidators(ConditionalResult answer) {
+    if (answer.getEtag() == null && answer.getLastModified() == null) {
+      return answer;
+    }
+    return ConditionalResult.of(answer.getDocument(), null, null, answer.getBytes());
+  }
+}
@@ -1,11 +1,8 @@
 package com.github.olegzzz.maven.plugin.bomsearch;
 
-import static java.util.stream.Collectors.toList;
-
 import java.io.File;
 import java.io.IOException;
 import java.util.Collection;
-import java.util.List;
 import javax.annotation.Nullable;
 import org.apache.maven.execution.MavenSession;
 import org.apache.maven.plugin.AbstractMojo;
@@ -14,12 +11,10 @@ import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugins.annotations.Parameter;
 import org.apache.maven.project.MavenProject;
 import org.apache.maven.shared.incremental.IncrementalBuildHelper;
-import org.apache.maven.shared.utils.io.DirectoryScanner;
-import org.apache.maven.shared.utils.io.FileUtils;
 
 public class IncrementalSupportMojo extends AbstractMojo {
 
-  public static final String BOM_LIST_FILENAME = "bomList.lst";
+  public static final String STATUS_FILENAME = "status.bin";
 
   @SuppressWarnings("unused")
   @Parameter(defaultValue = "${project}", readonly = true, required = true)
@@ -41,95 +36,103 @@ public class IncrementalSupportMojo extends AbstractMojo {
    * The current build session instance.
    */
   @Parameter(defaultValue = "${session}", readonly = true, required = true)
-  private MavenSession session;
+  protected MavenSession session;
 
   @Parameter(defaultValue = "true", property = "bomsearch.incremental")
   protected boolean incremental;
 
   private IncrementalBuildHelper incBuildHelper;
 
-  protected boolean isPomFilesChanged() throws MojoExecutionException {
-    DirectoryScanner directoryScanner = incBuildHelper.getDirectoryScanner();
-    directoryScanner.setBasedir(project.getBasedir());
-    directoryScanner.setIncludes("**/pom.xml");
+  @Nullable
+  private BuildStatus status;
 
-    return incBuildHelper.inputFileTreeChanged(directoryScanner);
+  /**
+   * Tells whether anything the result of the mojo depends on changed since the last execution.
+   * Mojos that keep results across executions override this, by default everything is considered
+   * changed.
+   */
+  protected boolean isInputChanged() throws MojoExecutionException {
+    return true;
   }
 
   /**
-   * Writes data represented as an iterable into file with name <code>filename</code> using
-   * <code>toString</code>.
-   *
-   * @param fileName name of the status file
-   * @param data     data to be written
+   * Returns the status of this execution, initially the one left by the previous execution.
    */
-  protected void writeStatusFile(String fileName, String data) {
-    File filename;
-    try {
-      filename = new File(incBuildHelper.getMojoStatusDirectory(), fileName);
-    } catch (Exception e) {
-      String msg = "Unable to read status directory.";
-      getLog().debug(msg, e);
-      getLog().warn(msg);
-      return;
-    }
-
-    try {
-      FileUtils.fileWrite(filename.getAbsolutePath(), data);
-    } catch (Exception e) {
-      String msg = String.format("Unable to write status file '%s'.", fileName);
-      getLog().debug(msg, e);
-      getLog().warn(msg);
+  protected BuildStatus status() {
+    if (status == null) {
+      BuildStatus previous = readStatus();
+      status = previous != null ? previous : new BuildStatus();
     }
+    return status;
   }
 
+  /**
+   * Reads the status left by the previous execution.
+   *
+   * @return the status, or null if there is none or it cannot be read
+   */
   @Nullable
-  protected List<String> readStatusFile(String fileName) {
+  protected BuildStatus readStatus() {
+    if (incBuildHelper == null) {
+      return null;
+    }
     File file;
     try {
-      file = new File(incBuildHelper.getMojoStatusDirectory(), fileName);
+      file = new File(incBuildHelper.getMojoStatusDirectory(), STATUS_FILENAME);
     } catch (MojoExecutionException e) {
       String msg = "Unable to read status directory.";
       getLog().debug(msg, e);
       getLog().warn(msg);
       return null;
     }
+    if (!file.isFile()) {
+      return null;
+    }
     try {
-      List<String> data = FileUtils.loadFile(file);
-      if (data.isEmpty()) {
-        return null;
-      } else {
-        return data;
-      }
+      return BuildStatus.read(file.toPath());
     } catch (IOException e) {
-      String msg = String.format("Unable to read build status file '%s'.", fileName);
+      String msg = String.format("Unable to read build status file '%s'.", STATUS_FILENAME);
       getLog().warn(msg);
       getLog().debug(msg, e);
       return null;
     }
   }
 
-  protected void writeBomList(Collection<DependencyModel> boms) {
+  /**
+   * Stores <code>status</code> for the next execution. Nothing is stored unless the incremental
+   * build is enabled.
+   */
+  protected void writeStatus(BuildStatus status) {
+    if (incBuildHelper == null) {
+      return;
+    }
+    File file;
+    try {
+      file = new File(incBuildHelper.getMojoStatusDirectory(), STATUS_FILENAME);
+    } catch (Exception e) {
+      String msg = "Unable to read status directory.";
+      getLog().debug(msg, e);
+      getLog().warn(msg);
+      return;
+    }
 
-    StringBuilder sb = new StringBuilder();
-    for (DependencyModel d : boms) {
-      sb.append(d.toString()).append(System.lineSeparator());
+    try {
+      status.write(file.toPath());
+    } catch (Exception e) {
+      String msg = String.format("Unable to write status file '%s'.", STATUS_FILENAME);
+      getLog().debug(msg, e);
+      getLog().warn(msg);
     }
+  }
 
-    writeStatusFile(BOM_LIST_FILENAME, sb.toString());
+  protected void writeBomList(Collection<DependencyModel> boms) {
+    status().setBoms(boms);
+    writeStatus(status());
   }
 
   @Nullable
   protected Collection<DependencyModel> readBomList() {
-    List<String> list = readStatusFile(BOM_LIST_FILENAME);
-    if (list == null) {
-      return null;
-    }
-
-    return list
-        .stream()
-        .map(DependencyModel::fromString)
-        .collect(toList());
+    return status().getBoms();
   }
 
   @Override
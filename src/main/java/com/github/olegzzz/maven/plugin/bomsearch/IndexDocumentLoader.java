@@ -0,0 +1,52 @@
+package com.github.olegzzz.maven.plugin.bomsearch;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import javax.annotation.Nullable;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+
+/**
+ * Answers group lookups from a {@link GroupIndex} without any network access.
+ */
+class IndexDocumentLoader implements DocumentLoader {
+
+  private final GroupIndex index;
+  private final String remoteUrl;
+
+  /**
+   * Creates a loader.
+   *
+   * @param index     index to answer from
+   * @param remoteUrl url of the repository group uris are relative to
+   */
+  IndexDocumentLoader(GroupIndex index, String remoteUrl) {
+    this.index = index;
+    this.remoteUrl = remoteUrl.endsWith("/") ? remoteUrl : remoteUrl + "/";
+  }
+
+  @Nullable
+  @Override
+  public Document loadGroupByUri(String uri) {
+    if (!uri.startsWith(remoteUrl)) {
+      return null;
+    }
+    String groupId = uri.substring(remoteUrl.length()).replaceAll("/+$", "").replace('/', '.');
+    Document document = Document.createShell(uri);
+    for (String artifactId : index.lookup(groupId)) {
+      document.body().appendChild(new Element(SearchMojo.TAG_A)
+          .attr("href", artifactId + "/")
+          .attr("title", artifactId + "/"));
+    }
+    return document;
+  }
+
+  /**
+   * Answers right away, the index is in memory.
+   */
+  @Override
+  public CompletableFuture<ConditionalResult> loadGroupByUriAsync(String uri,
+      @Nullable String etag, @Nullable String lastModified, Executor executor) {
+    return CompletableFuture.completedFuture(loadGroupByUri(uri, etag, lastModified));
+  }
+}
@@ -0,0 +1,54 @@
+package com.github.olegzzz.maven.plugin.bomsearch;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.SortedMap;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+
+/**
+ * Builds a groupId to BOM index from a repository directory tree, for use by offline searches.
+ */
+@Mojo(name = "index", requiresProject = false, aggregator = true)
+public class IndexMojo extends AbstractMojo {
+
+  /**
+   * Repository directory tree to index, e.g. a repository mirror on disk. Defaults to the local
+   * repository.
+   */
+  @Parameter(property = "bomsearch.indexSource")
+  private File source;
+
+  /**
+   * Index file to write. Defaults to the location searches pick up automatically in offline mode.
+   */
+  @Parameter(property = "bomsearch.index")
+  private File index;
+
+  @Parameter(defaultValue = "${session}", readonly = true, required = true)
+  private MavenSession session;
+
+  @Override
+  public void execute() throws MojoExecutionException {
+    File localRepository = new File(session.getLocalRepository().getBasedir());
+    File sourceDir = source != null ? source : localRepository;
+    File indexFile = index != null ? index : new File(localRepository, SearchMojo.INDEX_FILE);
+    if (!sourceDir.isDirectory()) {
+      throw new MojoExecutionException(
+          String.format("Index source '%s' is not a directory.", sourceDir));
+    }
+
+    getLog().info(String.format("Indexing BOM artifacts in '%s'.", sourceDir));
+    try {
+      SortedMap<String, List<String>> groups = GroupIndex.scan(sourceDir.toPath());
+      GroupIndex.write(indexFile.toPath(), groups);
+      getLog().info(String.format("Wrote %d groups to '%s'.", groups.size(), indexFile));
+    } catch (IOException e) {
+      throw new MojoExecutionException(String.format("Unable to write index '%s'.", indexFile), e);
+    }
+  }
+}
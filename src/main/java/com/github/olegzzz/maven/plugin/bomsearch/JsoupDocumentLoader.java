@@ -1,23 +1,162 @@
 package com.github.olegzzz.maven.plugin.bomsearch;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ThreadLocalRandom;
 import javax.annotation.Nullable;
+import org.jsoup.Connection;
+import org.jsoup.HttpStatusException;
 import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Loads group listings with a new connection per request. Requests failing with an I/O error or
+ * a server error are retried a few times with a jittered backoff. Once the loading thread is
+ * interrupted, e.g. because the search ran out of time, no further attempt is made.
+ */
 class JsoupDocumentLoader implements DocumentLoader {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(JsoupDocumentLoader.class);
 
+  static final int NOT_MODIFIED = 304;
+  static final int BAD_REQUEST = 400;
+  static final int SERVER_ERROR = 500;
+
+  static final int DEFAULT_TIMEOUT_MILLIS = 30000;
+  static final long BASE_BACKOFF_MILLIS = 250;
+  static final long MAX_BACKOFF_MILLIS = 5000;
+
+  private static final ListingScanner SCANNER = new ListingScanner(SearchMojo.TITLE_BOM);
+
+  private final int timeoutMillis;
+  private final int retries;
+
+  JsoupDocumentLoader() {
+    this(DEFAULT_TIMEOUT_MILLIS, 0);
+  }
+
+  /**
+   * Creates a loader.
+   *
+   * @param timeoutMillis connect and read timeout of a single request in milliseconds
+   * @param retries       how many times a request failing with an I/O error or a server error is
+   *                      retried
+   */
+  JsoupDocumentLoader(int timeoutMillis, int retries) {
+    this.timeoutMillis = timeoutMillis;
+    this.retries = retries;
+  }
+
   @Nullable
   public Document loadGroupByUri(String uri) {
+    return loadGroupByUri(uri, null, null).getDocument();
+  }
+
+  @Override
+  public ConditionalResult loadGroupByUri(String uri, @Nullable String etag,
+      @Nullable String lastModified) {
+    for (int attempt = 0; ; attempt++) {
+      try {
+        return fetch(uri, etag, lastModified);
+      } catch (IOException e) {
+        if (Thread.currentThread().isInterrupted()) {
+          LOGGER.debug(String.format("Lookup of '%s' interrupted.", uri));
+          return ConditionalResult.of(null, null, null);
+        }
+        if (attempt >= retries) {
+          LOGGER.warn(
+              String.format("Unable to fetch dependencies for uri '%s' due to '%s'.", uri, e));
+          return ConditionalResult.of(null, null, null);
+        }
+        long delay = backoff(attempt);
+        LOGGER.debug(String.format("Retrying '%s' in %d ms after '%s'.", uri, delay, e));
+        try {
+          Thread.sleep(delay);
+        } catch (InterruptedException ie) {
+          Thread.currentThread().interrupt();
+          LOGGER.debug(String.format("Lookup of '%s' interrupted.", uri));
+          return ConditionalResult.of(null, null, null);
+        }
+      }
+    }
+  }
+
+  /**
+   * Returns a random delay of up to the exponential backoff of <code>attempt</code>, so that
+   * lookups failing together do not retry together.
+   */
+  static long backoff(int attempt) {
+    long cap = Math.min(MAX_BACKOFF_MILLIS, BASE_BACKOFF_MILLIS << Math.min(attempt, 16));
+    return ThreadLocalRandom.current().nextLong(cap + 1);
+  }
+
+  /**
+   * Sends a single request.
+   *
+   * @throws IOException on I/O errors and server errors worth retrying
+   */
+  private ConditionalResult fetch(String uri, @Nullable String etag,
+      @Nullable String lastModified) throws IOException {
+    Connection connection = Jsoup.connect(uri)
+        .timeout(timeoutMillis)
+        .maxBodySize(0)
+        .ignoreHttpErrors(true);
+    if (etag != null) {
+      connection.header("If-None-Match", etag);
+    }
+    if (lastModified != null) {
+      connection.header("If-Modified-Since", lastModified);
+    }
+    Connection.Response response = connection.execute();
+    int status = response.statusCode();
+    if (status == NOT_MODIFIED) {
+      return ConditionalResult.notModified();
+    }
+    if (ConditionalResult.isThrottling(status)) {
+      return ConditionalResult.throttled(
+          ConditionalResult.parseRetryAfter(response.header("Retry-After")));
+    }
+    if (ConditionalResult.isMissing(status)) {
+      LOGGER.debug(String.format("No group at uri '%s', status %d.", uri, status));
+      return ConditionalResult.missing(uri);
+    }
+    if (status >= SERVER_ERROR) {
+      throw new HttpStatusException("HTTP error fetching URL", status, uri);
+    }
+    if (status >= BAD_REQUEST) {
+      LOGGER.warn(String.format(
+          "Unable to fetch dependencies for uri '%s' due to status %d.", uri, status));
+      return ConditionalResult.of(null, null, null);
+    }
+    CountingInputStream body = new CountingInputStream(response.bodyStream());
+    Document document = scan(body, charset(response), uri);
+    return ConditionalResult.of(document, response.header("ETag"),
+        response.header("Last-Modified"), body.getCount());
+  }
+
+  /**
+   * Scans the listing as it is downloaded. The body size limit is lifted since nothing but the
+   * matching anchors is held in memory.
+   */
+  private Document scan(InputStream body, Charset charset, String uri) throws IOException {
+    try (Reader reader = new InputStreamReader(body, charset)) {
+      return SCANNER.scan(reader, uri);
+    }
+  }
+
+  private static Charset charset(Connection.Response response) {
     try {
-      return Jsoup.connect(uri).get();
-    } catch (IOException e) {
-      LOGGER.warn(String.format("Unable to fetch dependencies for uri '%s' due to '%s'.", uri, e));
-      return null;
+      return response.charset() != null
+          ? Charset.forName(response.charset())
+          : StandardCharsets.UTF_8;
+    } catch (IllegalArgumentException e) {
+      return StandardCharsets.UTF_8;
     }
   }
 }
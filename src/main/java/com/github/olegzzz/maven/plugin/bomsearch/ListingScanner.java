@@ -0,0 +1,213 @@
+package com.github.olegzzz.maven.plugin.bomsearch;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Locale;
+import java.util.function.Predicate;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.jsoup.parser.Parser;
+import org.jsoup.parser.Tag;
+
+/**
+ * Streaming scanner for repository directory listings.
+ *
+ * <p>Instead of building a DOM of the whole page, anchors are tokenized as characters arrive and
+ * only those accepted by the filter are kept, in a small document holding nothing but these
+ * anchors. Scanning stops as soon as the listing is exhausted, i.e. at the end of the
+ * <code>&lt;pre&gt;</code> block the anchors were found in, or at the end of the body.
+ */
+class ListingScanner {
+
+  /**
+   * Tags longer than this are not anchors worth looking at and are skipped.
+   */
+  static final int MAX_TAG_LENGTH = 8192;
+
+  private static final Tag ANCHOR = Tag.valueOf(SearchMojo.TAG_A);
+
+  private final Predicate<Element> filter;
+
+  ListingScanner(Predicate<Element> filter) {
+    this.filter = filter;
+  }
+
+  /**
+   * Scans <code>reader</code> and returns a document with the accepted anchors of the listing.
+   *
+   * @param reader  listing page
+   * @param baseUri uri the listing was loaded from
+   */
+  Document scan(Reader reader, String baseUri) throws IOException {
+    Document document = Document.createShell(baseUri);
+    Element body = document.body();
+    Tokenizer tokenizer = new Tokenizer(reader);
+
+    boolean inPre = false;
+    boolean anchorsInPre = false;
+    String tag;
+    while ((tag = tokenizer.nextTag()) != null) {
+      String name = tagName(tag);
+      if ("a".equals(name)) {
+        anchorsInPre |= inPre;
+        Element anchor = anchor(tag);
+        if (filter.test(anchor)) {
+          body.appendChild(anchor);
+        }
+      } else if ("pre".equals(name)) {
+        inPre = true;
+      } else if ("/pre".equals(name)) {
+        if (anchorsInPre) {
+          break;
+        }
+        inPre = false;
+      } else if ("/body".equals(name) || "/html".equals(name)) {
+        break;
+      } else if ("script".equals(name) || "style".equals(name)) {
+        tokenizer.skipPast("</" + name);
+      }
+    }
+    return document;
+  }
+
+  private static String tagName(String tag) {
+    int end = tag.charAt(0) == '/' ? 1 : 0;
+    while (end < tag.length() && !Character.isWhitespace(tag.charAt(end))
+        && tag.charAt(end) != '/') {
+      end++;
+    }
+    return tag.substring(0, end).toLowerCase(Locale.ROOT);
+  }
+
+  private static Element anchor(String tag) {
+    Element anchor = new Element(ANCHOR, "");
+    int i = 1;
+    int len = tag.length();
+    while (i < len) {
+      while (i < len && (Character.isWhitespace(tag.charAt(i)) || tag.charAt(i) == '/')) {
+        i++;
+      }
+      int nameStart = i;
+      while (i < len && !Character.isWhitespace(tag.charAt(i)) && tag.charAt(i) != '='
+          && tag.charAt(i) != '/') {
+        i++;
+      }
+      if (nameStart == i) {
+        break;
+      }
+      String name = tag.substring(nameStart, i).toLowerCase(Locale.ROOT);
+      while (i < len && Character.isWhitespace(tag.charAt(i))) {
+        i++;
+      }
+      String value = "";
+      if (i < len && tag.charAt(i) == '=') {
+        i++;
+        while (i < len && Character.isWhitespace(tag.charAt(i))) {
+          i++;
+        }
+        if (i < len && (tag.charAt(i) == '"' || tag.charAt(i) == '\'')) {
+          char quote = tag.charAt(i++);
+          int valueStart = i;
+          while (i < len && tag.charAt(i) != quote) {
+            i++;
+          }
+          value = tag.substring(valueStart, i);
+          i++;
+        } else {
+          int valueStart = i;
+          while (i < len && !Character.isWhitespace(tag.charAt(i))) {
+            i++;
+          }
+          value = tag.substring(valueStart, i);
+        }
+      }
+      if (!anchor.hasAttr(name)) {
+        // Unescaping sets up a whole tokenizer, only pay for it if there is an entity at all.
+        anchor.attr(name, value.indexOf('&') < 0 ? value : Parser.unescapeEntities(value, true));
+      }
+    }
+    return anchor;
+  }
+
+  /**
+   * Splits a character stream into the contents of its tags, skipping text and comments.
+   */
+  private static class Tokenizer {
+
+    private final Reader reader;
+    private final char[] buffer = new char[8192];
+    private final StringBuilder tag = new StringBuilder();
+    private int pos;
+    private int limit;
+
+    Tokenizer(Reader reader) {
+      this.reader = reader;
+    }
+
+    /**
+     * Returns the contents of the next tag between <code>&lt;</code> and <code>&gt;</code>, or
+     * null at the end of the stream.
+     */
+    String nextTag() throws IOException {
+      while (true) {
+        int c;
+        do {
+          c = read();
+        } while (c != -1 && c != '<');
+        if (c == -1) {
+          return null;
+        }
+
+        tag.setLength(0);
+        boolean tooLong = false;
+        while ((c = read()) != -1 && c != '>') {
+          if (tag.length() < MAX_TAG_LENGTH) {
+            tag.append((char) c);
+          } else {
+            tooLong = true;
+          }
+          if (tag.length() == 3 && tag.charAt(0) == '!' && tag.charAt(1) == '-'
+              && tag.charAt(2) == '-') {
+            skipPast("-->");
+            break;
+          }
+        }
+        if (c == -1) {
+          return null;
+        }
+        if (tooLong || tag.length() == 0 || tag.charAt(0) == '!' || tag.charAt(0) == '?') {
+          continue;
+        }
+        return tag.toString();
+      }
+    }
+
+    /**
+     * Skips input up to and including the first case-insensitive occurrence of
+     * <code>marker</code>.
+     */
+    void skipPast(String marker) throws IOException {
+      int matched = 0;
+      int c;
+      while (matched < marker.length() && (c = read()) != -1) {
+        if (Character.toLowerCase((char) c) == marker.charAt(matched)) {
+          matched++;
+        } else {
+          matched = Character.toLowerCase((char) c) == marker.charAt(0) ? 1 : 0;
+        }
+      }
+    }
+
+    private int read() throws IOException {
+      if (pos == limit) {
+        limit = reader.read(buffer, 0, buffer.length);
+        pos = 0;
+        if (limit <= 0) {
+          limit = 0;
+          return -1;
+        }
+      }
+      return buffer[pos++];
+    }
+  }
+}
@@ -0,0 +1,131 @@
+package com.github.olegzzz.maven.plugin.bomsearch;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import javax.annotation.Nullable;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Answers group lookups from the local repository and goes to the remote repository on a miss.
+ *
+ * <p>A group counts as resolved locally if its directory in the local repository holds at least
+ * one BOM artifact, i.e. a matching directory with a cached <code>maven-metadata*.xml</code> or a
+ * downloaded pom. Since the local repository only holds what was downloaded before, a group
+ * without a local BOM may still have one remotely and is always looked up there. For the same
+ * reason a group resolved locally may lack BOMs only the remote repository has, so local answers
+ * are never kept in the persistent cache.
+ */
+class LocalRepositoryDocumentLoader implements DocumentLoader {
+
+  private static final Logger LOGGER =
+      LoggerFactory.getLogger(LocalRepositoryDocumentLoader.class);
+
+  private final Path localRepository;
+  private final String remoteUrl;
+  private final DocumentLoader remote;
+
+  /**
+   * Creates a loader.
+   *
+   * @param localRepository base directory of the local repository
+   * @param remoteUrl       url of the remote repository group uris are relative to
+   * @param remote          loader used on a miss
+   */
+  LocalRepositoryDocumentLoader(Path localRepository, String remoteUrl, DocumentLoader remote) {
+    this.localRepository = localRepository;
+    this.remoteUrl = remoteUrl.endsWith("/") ? remoteUrl : remoteUrl + "/";
+    this.remote = remote;
+  }
+
+  @Nullable
+  @Override
+  public Document loadGroupByUri(String uri) {
+    Document local = loadLocal(uri);
+    return local != null ? local : remote.loadGroupByUri(uri);
+  }
+
+  @Override
+  public ConditionalResult loadGroupByUri(String uri, @Nullable String etag,
+      @Nullable String lastModified) {
+    Document local = loadLocal(uri);
+    return local != null
+        ? ConditionalResult.local(local)
+        : remote.loadGroupByUri(uri, etag, lastModified);
+  }
+
+  @Nullable
+  private Document loadLocal(String uri) {
+    if (!uri.startsWith(remoteUrl)) {
+      return null;
+    }
+    Path groupDir = localRepository.resolve(uri.substring(remoteUrl.length()));
+    if (!Files.isDirectory(groupDir)) {
+      return null;
+    }
+
+    Document document = Document.createShell(uri);
+    for (String artifactId : localArtifactIds(groupDir)) {
+      Element anchor = new Element(SearchMojo.TAG_A)
+          .attr("href", artifactId + "/")
+          .attr("title", artifactId + "/");
+      if (SearchMojo.TITLE_BOM.test(anchor)) {
+        document.body().appendChild(anchor);
+      }
+    }
+    if (document.body().childNodeSize() == 0) {
+      return null;
+    }
+    LOGGER.debug(String.format("Resolved '%s' from local repository.", uri));
+    return document;
+  }
+
+  private static List<String> localArtifactIds(Path groupDir) {
+    List<String> res = new ArrayList<>();
+    try (DirectoryStream<Path> children = Files.newDirectoryStream(groupDir, Files::isDirectory)) {
+      for (Path child : children) {
+        if (child.getFileName().toString().contains(SearchMojo.BOM_MARKER)
+            && isArtifactDirectory(child)) {
+          res.add(child.getFileName().toString());
+        }
+      }
+    } catch (IOException e) {
+      LOGGER.debug(String.format("Unable to list '%s' due to '%s'.", groupDir, e));
+      return Collections.emptyList();
+    }
+    Collections.sort(res);
+    return res;
+  }
+
+  /**
+   * Tells whether <code>dir</code> is an artifact directory of a repository, i.e. holds
+   * <code>maven-metadata*.xml</code> or a version directory with a pom.
+   */
+  static boolean isArtifactDirectory(Path dir) throws IOException {
+    try (DirectoryStream<Path> children = Files.newDirectoryStream(dir)) {
+      for (Path child : children) {
+        String name = child.getFileName().toString();
+        if (name.startsWith("maven-metadata") && name.endsWith(".xml")) {
+          return true;
+        }
+        if (Files.isDirectory(child) && hasPom(child)) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  static boolean hasPom(Path versionDir) throws IOException {
+    try (DirectoryStream<Path> poms = Files.newDirectoryStream(versionDir, "*.pom")) {
+      return poms.iterator().hasNext();
+    }
+  }
+}
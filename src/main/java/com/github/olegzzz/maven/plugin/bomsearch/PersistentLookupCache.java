@@ -0,0 +1,323 @@
+package com.github.olegzzz.maven.plugin.bomsearch;
+
+import com.google.common.annotations.VisibleForTesting;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Group lookup results persisted across builds and projects.
+ *
+ * <p>Only the BOM artifact ids of a group are stored, never the listing itself, together with
+ * the HTTP validators the listing was served with. Entries older than the ttl are not returned by
+ * {@link #get(String)}; they are kept for revalidation if they have validators and dropped on save
+ * otherwise. Beyond <code>maxEntries</code> the oldest entries are evicted first.
+ *
+ * <p>Groups without any BOM, by far the most common result, are negative entries with a ttl and
+ * a size limit of their own, so that they can be kept longer than positive ones without
+ * crowding them out.
+ */
+class PersistentLookupCache {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(PersistentLookupCache.class);
+
+  private static final int MAGIC = 0x424f4d43; // "BOMC"
+  private static final int VERSION = 2;
+
+  private static final int HAS_ETAG = 1;
+  private static final int HAS_LAST_MODIFIED = 2;
+
+  private final Path file;
+  private final long ttlMillis;
+  private final int maxEntries;
+  private final long negativeTtlMillis;
+  private final int maxNegativeEntries;
+  private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+  /**
+   * Counts changes of the entries, so that a change made while a save is writing is not taken as
+   * saved by it.
+   */
+  private final AtomicLong modifications = new AtomicLong();
+  private long savedModifications;
+
+  PersistentLookupCache(Path file, long ttlMillis, int maxEntries) {
+    this(file, ttlMillis, maxEntries, ttlMillis, maxEntries);
+  }
+
+  /**
+   * Creates a cache.
+   *
+   * @param file               file the cache is saved to
+   * @param ttlMillis          time entries with BOMs are fresh for
+   * @param maxEntries         maximum number of entries with BOMs
+   * @param negativeTtlMillis  time entries without BOMs are fresh for
+   * @param maxNegativeEntries maximum number of entries without BOMs
+   */
+  PersistentLookupCache(Path file, long ttlMillis, int maxEntries, long negativeTtlMillis,
+      int maxNegativeEntries) {
+    this.file = file;
+    this.ttlMillis = ttlMillis;
+    this.maxEntries = maxEntries;
+    this.negativeTtlMillis = negativeTtlMillis;
+    this.maxNegativeEntries = maxNegativeEntries;
+  }
+
+  /**
+   * Creates a cache backed by <code>file</code>, reading existing entries if the file is there.
+   */
+  static PersistentLookupCache load(Path file, long ttlMillis, int maxEntries) {
+    return load(file, ttlMillis, maxEntries, ttlMillis, maxEntries);
+  }
+
+  /**
+   * Creates a cache backed by <code>file</code> with separate limits for entries without BOMs,
+   * reading existing entries if the file is there.
+   */
+  static PersistentLookupCache load(Path file, long ttlMillis, int maxEntries,
+      long negativeTtlMillis, int maxNegativeEntries) {
+    PersistentLookupCache cache = new PersistentLookupCache(file, ttlMillis, maxEntries,
+        negativeTtlMillis, maxNegativeEntries);
+    try {
+      cache.entries.putAll(read(file));
+      LOGGER.debug(
+          String.format("Loaded %d cached lookups from '%s'.", cache.entries.size(), file));
+    } catch (NoSuchFileException e) {
+      LOGGER.debug(String.format("No lookup cache at '%s' yet.", file));
+    } catch (IOException e) {
+      LOGGER.warn(String.format("Unable to read lookup cache '%s' due to '%s'.", file, e));
+    }
+    return cache;
+  }
+
+  /**
+   * Returns cached artifact ids for <code>uri</code>, or null if there are none or they expired.
+   */
+  @Nullable
+  List<String> get(String uri) {
+    Entry entry = entries.get(uri);
+    if (entry == null || isExpired(entry, System.currentTimeMillis())) {
+      return null;
+    }
+    return entry.artifactIds;
+  }
+
+  /**
+   * Returns the entry for <code>uri</code> whether expired or not, or null if there is none.
+   */
+  @Nullable
+  Entry peek(String uri) {
+    return entries.get(uri);
+  }
+
+  void put(String uri, List<String> artifactIds) {
+    put(uri, artifactIds, null, null);
+  }
+
+  void put(String uri, List<String> artifactIds, @Nullable String etag,
+      @Nullable String lastModified) {
+    put(uri, artifactIds, etag, lastModified, System.currentTimeMillis());
+  }
+
+  @VisibleForTesting
+  void put(String uri, List<String> artifactIds, @Nullable String etag,
+      @Nullable String lastModified, long fetchedAt) {
+    entries.put(uri, new Entry(fetchedAt,
+        Collections.unmodifiableList(new ArrayList<>(artifactIds)), etag, lastModified));
+    modifications.incrementAndGet();
+  }
+
+  /**
+   * Marks the entry for <code>uri</code> as confirmed by the repository just now.
+   *
+   * @return cached artifact ids, or null if there is no entry to revalidate
+   */
+  @Nullable
+  List<String> revalidate(String uri) {
+    Entry entry = entries.computeIfPresent(uri, (k, e) ->
+        new Entry(System.currentTimeMillis(), e.artifactIds, e.etag, e.lastModified));
+    if (entry == null) {
+      return null;
+    }
+    modifications.incrementAndGet();
+    return entry.artifactIds;
+  }
+
+  /**
+   * Tells whether <code>entry</code> is recent enough to be served while it is refreshed, i.e.
+   * expired for no longer than its ttl.
+   */
+  boolean isServableWhileStale(Entry entry) {
+    return System.currentTimeMillis() - entry.fetchedAt <= 2 * ttlOf(entry);
+  }
+
+  int size() {
+    return entries.size();
+  }
+
+  /**
+   * Writes the cache back to disk if anything changed. Entries written meanwhile by other builds
+   * are merged in, the newest result for a uri wins. The merge holds the lock on the cache file,
+   * so that concurrent builds do not lose each other's entries.
+   */
+  synchronized void save() throws IOException {
+    // Read before the entries are, so that anything changed later is saved by the next call.
+    long seen = modifications.get();
+    if (seen == savedModifications) {
+      return;
+    }
+    FileLocks.withLock(file, () -> {
+      Map<String, Entry> merged;
+      try {
+        merged = read(file);
+      } catch (IOException e) {
+        merged = new HashMap<>();
+      }
+      for (Map.Entry<String, Entry> e : entries.entrySet()) {
+        merged.merge(e.getKey(), e.getValue(),
+            (disk, mem) -> disk.fetchedAt > mem.fetchedAt ? disk : mem);
+      }
+
+      long now = System.currentTimeMillis();
+      List<Map.Entry<String, Entry>> positive = new ArrayList<>();
+      List<Map.Entry<String, Entry>> negative = new ArrayList<>();
+      for (Map.Entry<String, Entry> e : merged.entrySet()) {
+        if (!isExpired(e.getValue(), now) || e.getValue().hasValidators()) {
+          (e.getValue().artifactIds.isEmpty() ? negative : positive).add(e);
+        }
+      }
+      List<Map.Entry<String, Entry>> retained = newest(positive, maxEntries);
+      retained.addAll(newest(negative, maxNegativeEntries));
+
+      write(file, retained);
+      return null;
+    });
+    savedModifications = seen;
+  }
+
+  private static List<Map.Entry<String, Entry>> newest(List<Map.Entry<String, Entry>> entries,
+      int max) {
+    entries.sort(Comparator.comparingLong(
+        (Map.Entry<String, Entry> e) -> e.getValue().fetchedAt).reversed());
+    return new ArrayList<>(entries.subList(0, Math.min(entries.size(), max)));
+  }
+
+  private boolean isExpired(Entry entry, long now) {
+    return now - entry.fetchedAt > ttlOf(entry);
+  }
+
+  private long ttlOf(Entry entry) {
+    return entry.artifactIds.isEmpty() ? negativeTtlMillis : ttlMillis;
+  }
+
+  private static Map<String, Entry> read(Path file) throws IOException {
+    try (DataInputStream in =
+        new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+      if (in.readInt() != MAGIC || in.readUnsignedByte() != VERSION) {
+        throw new IOException("Unsupported lookup cache format.");
+      }
+      int size = in.readInt();
+      Map<String, Entry> res = new HashMap<>(size * 2);
+      for (int i = 0; i < size; i++) {
+        String uri = in.readUTF();
+        long fetchedAt = in.readLong();
+        int flags = in.readUnsignedByte();
+        String etag = (flags & HAS_ETAG) != 0 ? in.readUTF() : null;
+        String lastModified = (flags & HAS_LAST_MODIFIED) != 0 ? in.readUTF() : null;
+        int count = in.readUnsignedShort();
+        List<String> ids = new ArrayList<>(count);
+        for (int j = 0; j < count; j++) {
+          ids.add(in.readUTF());
+        }
+        res.put(uri, new Entry(fetchedAt, Collections.unmodifiableList(ids), etag, lastModified));
+      }
+      return res;
+    }
+  }
+
+  private static void write(Path file, List<Map.Entry<String, Entry>> entries) throws IOException {
+    Files.createDirectories(file.toAbsolutePath().getParent());
+    Path tmp = Files.createTempFile(file.toAbsolutePath().getParent(), "lookups", ".tmp");
+    try {
+      try (DataOutputStream out =
+          new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+        out.writeInt(MAGIC);
+        out.writeByte(VERSION);
+        out.writeInt(entries.size());
+        for (Map.Entry<String, Entry> e : entries) {
+          out.writeUTF(e.getKey());
+          Entry entry = e.getValue();
+          out.writeLong(entry.fetchedAt);
+          out.writeByte((entry.etag != null ? HAS_ETAG : 0)
+              | (entry.lastModified != null ? HAS_LAST_MODIFIED : 0));
+          if (entry.etag != null) {
+            out.writeUTF(entry.etag);
+          }
+          if (entry.lastModified != null) {
+            out.writeUTF(entry.lastModified);
+          }
+          out.writeShort(e.getValue().artifactIds.size());
+          for (String id : e.getValue().artifactIds) {
+            out.writeUTF(id);
+          }
+        }
+      }
+      Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } finally {
+      Files.deleteIfExists(tmp);
+    }
+  }
+
+  static class Entry {
+
+    private final long fetchedAt;
+    private final List<String> artifactIds;
+    @Nullable
+    private final String etag;
+    @Nullable
+    private final String lastModified;
+
+    Entry(long fetchedAt, List<String> artifactIds, @Nullable String etag,
+        @Nullable String lastModified) {
+      this.fetchedAt = fetchedAt;
+      this.artifactIds = artifactIds;
+      this.etag = etag;
+      this.lastModified = lastModified;
+    }
+
+    List<String> getArtifactIds() {
+      return artifactIds;
+    }
+
+    @Nullable
+    String getEtag() {
+      return etag;
+    }
+
+    @Nullable
+    String getLastModified() {
+      return lastModified;
+    }
+
+    boolean hasValidators() {
+      return etag != null || lastModified != null;
+    }
+  }
+}
@@ -0,0 +1,194 @@
+package com.github.olegzzz.maven.plugin.bomsearch;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nullable;
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpStatus;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.entity.ContentType;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.util.EntityUtils;
+import org.jsoup.nodes.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Loads group listings over a pool of keep-alive connections, so that lookups against the same
+ * repository host share a few connections instead of paying connection setup and TLS handshake
+ * for every group.
+ */
+class PooledDocumentLoader implements DocumentLoader, Closeable {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(PooledDocumentLoader.class);
+
+  private static final ListingScanner SCANNER = new ListingScanner(SearchMojo.TITLE_BOM);
+
+  /**
+   * Pooled connections are not reused after this long, so that DNS changes are picked up.
+   */
+  private static final long CONNECTION_TTL_SECONDS = 60;
+
+  /**
+   * Most bytes read past the point where the scanner stopped to keep the connection for reuse;
+   * the request is aborted when more of the listing is left.
+   */
+  private static final int MAX_DRAIN_BYTES = 32 * 1024;
+
+  private final CloseableHttpClient client;
+
+  /**
+   * Creates a loader.
+   *
+   * @param connectTimeout        connect timeout in milliseconds
+   * @param readTimeout           socket read timeout in milliseconds
+   * @param maxConnectionsPerHost maximum number of pooled connections per repository host
+   */
+  PooledDocumentLoader(int connectTimeout, int readTimeout, int maxConnectionsPerHost) {
+    PoolingHttpClientConnectionManager connections =
+        new PoolingHttpClientConnectionManager(CONNECTION_TTL_SECONDS, TimeUnit.SECONDS);
+    connections.setDefaultMaxPerRoute(maxConnectionsPerHost);
+    connections.setMaxTotal(Math.max(maxConnectionsPerHost, 20));
+    RequestConfig config = RequestConfig.custom()
+        .setConnectTimeout(connectTimeout)
+        .setConnectionRequestTimeout(connectTimeout)
+        .setSocketTimeout(readTimeout)
+        .build();
+    this.client = HttpClients.custom()
+        .setConnectionManager(connections)
+        .setDefaultRequestConfig(config)
+        .disableCookieManagement()
+        .build();
+  }
+
+  @Nullable
+  @Override
+  public Document loadGroupByUri(String uri) {
+    return loadGroupByUri(uri, null, null).getDocument();
+  }
+
+  @Override
+  public ConditionalResult loadGroupByUri(String uri, @Nullable String etag,
+      @Nullable String lastModified) {
+    HttpGet request = new HttpGet(uri);
+    if (etag != null) {
+      request.setHeader(HttpHeaders.IF_NONE_MATCH, etag);
+    }
+    if (lastModified != null) {
+      request.setHeader(HttpHeaders.IF_MODIFIED_SINCE, lastModified);
+    }
+    try (CloseableHttpResponse response = client.execute(request)) {
+      int status = response.getStatusLine().getStatusCode();
+      HttpEntity entity = response.getEntity();
+      try {
+        if (status == HttpStatus.SC_NOT_MODIFIED) {
+          return ConditionalResult.notModified();
+        }
+        if (ConditionalResult.isThrottling(status)) {
+          return ConditionalResult.throttled(ConditionalResult.parseRetryAfter(
+              header(response, HttpHeaders.RETRY_AFTER)));
+        }
+        if (ConditionalResult.isMissing(status)) {
+          LOGGER.debug(String.format("No group at uri '%s', status %d.", uri, status));
+          return ConditionalResult.missing(uri);
+        }
+        if (status != HttpStatus.SC_OK || entity == null) {
+          LOGGER.warn(String.format(
+              "Unable to fetch dependencies for uri '%s' due to status %d.", uri, status));
+          return ConditionalResult.of(null, null, null);
+        }
+        CountingInputStream body = new CountingInputStream(entity.getContent());
+        // Not closed: closing the entity stream reads the whole rest of the listing.
+        Reader reader = new InputStreamReader(body, charset(entity));
+        Document document = SCANNER.scan(reader, uri);
+        if (!drain(body)) {
+          // The scanner stopped well before the end, a new connection is cheaper than the rest.
+          request.abort();
+        }
+        return ConditionalResult.of(document, header(response, HttpHeaders.ETAG),
+            header(response, HttpHeaders.LAST_MODIFIED), body.getCount());
+      } catch (IOException e) {
+        // Closes the connection rather than reading the rest of a body nobody waits for.
+        request.abort();
+        throw e;
+      } finally {
+        // Releases the connection back to the pool, unless the request was aborted.
+        EntityUtils.consumeQuietly(entity);
+      }
+    } catch (IOException e) {
+      if (Thread.currentThread().isInterrupted()) {
+        LOGGER.debug(String.format("Lookup of '%s' interrupted.", uri));
+      } else {
+        LOGGER.warn(
+            String.format("Unable to fetch dependencies for uri '%s' due to '%s'.", uri, e));
+      }
+      return ConditionalResult.of(null, null, null);
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    client.close();
+  }
+
+  /**
+   * Closes the client and its pooled connections when the JVM exits. For loaders shared by the
+   * whole session, which offers no hook to close them when the build ends.
+   *
+   * @return this loader
+   */
+  PooledDocumentLoader closeOnExit() {
+    Runtime.getRuntime().addShutdownHook(new Thread(this::closeQuietly, "bomsearch-pool-close"));
+    return this;
+  }
+
+  private void closeQuietly() {
+    try {
+      close();
+    } catch (IOException e) {
+      LOGGER.debug("Unable to close the connection pool.", e);
+    }
+  }
+
+  /**
+   * Reads up to {@link #MAX_DRAIN_BYTES} of what is left of the body.
+   *
+   * @return whether the end of the body was reached
+   */
+  private static boolean drain(InputStream body) throws IOException {
+    byte[] buffer = new byte[4096];
+    int left = MAX_DRAIN_BYTES;
+    int read;
+    while (left > 0 && (read = body.read(buffer, 0, Math.min(buffer.length, left))) != -1) {
+      left -= read;
+    }
+    return left > 0 || body.read() == -1;
+  }
+
+  @Nullable
+  private static String header(CloseableHttpResponse response, String name) {
+    Header header = response.getFirstHeader(name);
+    return header == null ? null : header.getValue();
+  }
+
+  private static Charset charset(HttpEntity entity) {
+    try {
+      Charset charset = ContentType.getOrDefault(entity).getCharset();
+      return charset == null ? StandardCharsets.UTF_8 : charset;
+    } catch (RuntimeException e) {
+      return StandardCharsets.UTF_8;
+    }
+  }
+}
@@ -0,0 +1,161 @@
+package com.github.olegzzz.maven.plugin.bomsearch;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Timings and request counters of a single search execution.
+ *
+ * <p>Phases are recorded by the mojo, group lookups by the parser and the session cache, possibly
+ * from several lookup threads at once.
+ */
+class SearchMetrics {
+
+  /**
+   * Where the answer to a group lookup came from.
+   */
+  enum Source {
+    /**
+     * Looked up earlier in the same build, possibly by another module.
+     */
+    SESSION,
+    /**
+     * Fresh entry of the persistent cache.
+     */
+    CACHE,
+    /**
+     * Expired cache entry confirmed by a conditional request.
+     */
+    REVALIDATED,
+    /**
+     * Listing loaded from the local repository, an index or the remote repository.
+     */
+    LOADED,
+    /**
+     * Expired cache entry used because the listing could not be loaded or is being refreshed in
+     * the background.
+     */
+    STALE,
+    /**
+     * Listing could not be loaded.
+     */
+    FAILED
+  }
+
+  private final Map<String, Long> phases = new LinkedHashMap<>();
+  private final Queue<Lookup> lookups = new ConcurrentLinkedQueue<>();
+
+  /**
+   * Adds <code>nanos</code> to the time spent in <code>phase</code>.
+   */
+  synchronized void phase(String phase, long nanos) {
+    phases.merge(phase, nanos, Long::sum);
+  }
+
+  void lookup(String uri, Source source, long nanos, long bytes) {
+    lookups.add(new Lookup(uri, source, nanos, bytes));
+  }
+
+  long count(Source source) {
+    return lookups.stream().filter(l -> l.source == source).count();
+  }
+
+  /**
+   * Bytes of the listings read by the loaders, after content decoding, so gzip responses count
+   * their decompressed size rather than what went over the wire.
+   */
+  long bytes() {
+    return lookups.stream().mapToLong(l -> l.bytes).sum();
+  }
+
+  /**
+   * One line summary of all lookups.
+   */
+  String summary() {
+    return String.format("%d group lookups: %d loaded (%d bytes decompressed), %d revalidated, "
+            + "%d cached, %d shared, %d stale, %d failed.",
+        lookups.size(), count(Source.LOADED), bytes(), count(Source.REVALIDATED),
+        count(Source.CACHE), count(Source.SESSION), count(Source.STALE), count(Source.FAILED));
+  }
+
+  /**
+   * Per phase and per group lines for debug output.
+   */
+  synchronized List<String> details() {
+    List<String> res = new ArrayList<>();
+    for (Map.Entry<String, Long> e : phases.entrySet()) {
+      res.add(String.format("Phase %s took %d ms.", e.getKey(), millis(e.getValue())));
+    }
+    for (Lookup l : lookups) {
+      res.add(String.format("Lookup of '%s' took %d ms, %s, %d bytes.",
+          l.uri, millis(l.nanos), l.source.name().toLowerCase(), l.bytes));
+    }
+    return res;
+  }
+
+  synchronized String toJson() {
+    StringBuilder sb = new StringBuilder("{\n  \"phases\": {");
+    String sep = "\n";
+    for (Map.Entry<String, Long> e : phases.entrySet()) {
+      sb.append(sep).append("    ").append(quote(e.getKey())).append(": ")
+          .append(millis(e.getValue()));
+      sep = ",\n";
+    }
+    sb.append(phases.isEmpty() ? "},\n" : "\n  },\n");
+    sb.append("  \"totals\": {\n");
+    for (Source source : Source.values()) {
+      sb.append("    ").append(quote(source.name().toLowerCase())).append(": ")
+          .append(count(source)).append(",\n");
+    }
+    sb.append("    \"bytes\": ").append(bytes()).append("\n  },\n");
+    sb.append("  \"lookups\": [");
+    sep = "\n";
+    for (Lookup l : lookups) {
+      sb.append(sep).append("    {\"uri\": ").append(quote(l.uri))
+          .append(", \"source\": ").append(quote(l.source.name().toLowerCase()))
+          .append(", \"millis\": ").append(millis(l.nanos))
+          .append(", \"bytes\": ").append(l.bytes).append('}');
+      sep = ",\n";
+    }
+    sb.append(lookups.isEmpty() ? "]\n}\n" : "\n  ]\n}\n");
+    return sb.toString();
+  }
+
+  private static long millis(long nanos) {
+    return TimeUnit.NANOSECONDS.toMillis(nanos);
+  }
+
+  private static String quote(String s) {
+    StringBuilder sb = new StringBuilder("\"");
+    for (char c : s.toCharArray()) {
+      if (c == '"' || c == '\\') {
+        sb.append('\\').append(c);
+      } else if (c < 0x20) {
+        sb.append(String.format("\\u%04x", (int) c));
+      } else {
+        sb.append(c);
+      }
+    }
+    return sb.append('"').toString();
+  }
+
+  private static class Lookup {
+
+    private final String uri;
+    private final Source source;
+    private final long nanos;
+    private final long bytes;
+
+    Lookup(String uri, Source source, long nanos, long bytes) {
+      this.uri = uri;
+      this.source = source;
+      this.nanos = nanos;
+      this.bytes = bytes;
+    }
+  }
+}
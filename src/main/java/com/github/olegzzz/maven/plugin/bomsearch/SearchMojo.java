@@ -3,15 +3,40 @@ package com.github.olegzzz.maven.plugin.bomsearch;
 import static java.util.stream.Collectors.toList;
 
 import com.google.common.annotations.VisibleForTesting;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
+import javax.annotation.Nullable;
 import org.apache.maven.model.Dependency;
 import org.apache.maven.model.DependencyManagement;
 import org.apache.maven.plugin.MojoExecutionException;
@@ -19,10 +44,12 @@ import org.apache.maven.plugins.annotations.LifecyclePhase;
 import org.apache.maven.plugins.annotations.Mojo;
 import org.apache.maven.plugins.annotations.Parameter;
 import org.apache.maven.project.MavenProject;
+import org.apache.maven.settings.Mirror;
+import org.apache.maven.settings.Server;
 import org.codehaus.plexus.util.CollectionUtils;
 import org.jsoup.nodes.Element;
 
-//todo: handle maven settings / passwords and repos urls
+//todo: authenticate against mirrors with the credentials of their settings.xml <server> entries
 
 /**
  * Searches for available BOM dependencies for current project.
@@ -31,9 +58,10 @@ import org.jsoup.nodes.Element;
 public class SearchMojo extends IncrementalSupportMojo {
 
   static final String TAG_A = "a";
+  static final String BOM_MARKER = "-bom";
 
   static final Predicate<Element> TITLE_BOM =
-      el -> el.attr("title").contains("-bom");
+      el -> el.attr("title").contains(BOM_MARKER);
   static final Predicate<Dependency> PACKAGING_POM =
       d -> "pom".equals(d.getType());
   static final Predicate<Dependency> SCOPE_IMPORT =
@@ -46,17 +74,213 @@ public class SearchMojo extends IncrementalSupportMojo {
       min -> e -> e.getValue() >= min;
 
   static final String MAVEN_CENTRAL = "https://repo.maven.apache.org/maven2";
+  static final String CACHE_FILE = ".cache/bom-search/lookups.bin";
+  static final String INDEX_FILE = ".cache/bom-search/index.bin";
+  static final String LOADER_JSOUP = "jsoup";
+  static final String LOADER_POOLED = "pooled";
+  static final String METRICS_FILE = "bomsearch-metrics.json";
 
   @SuppressWarnings("unused")
   @Parameter(property = "bomsearch.minOccurrence", defaultValue = "2")
-  private int minOccurrence;
+  protected int minOccurrence;
 
   @SuppressWarnings("unused")
   @Parameter(property = "bomsearch.mavenRepoUrl", defaultValue = MAVEN_CENTRAL)
   private String mavenRepoUrl;
 
+  /**
+   * Urls of repositories with the same content as {@link #mavenRepoUrl}, e.g. mirrors of Maven
+   * Central. Lookups are hedged across them, see {@link #hedgeDelay}.
+   */
+  @SuppressWarnings("unused")
+  @Parameter(property = "bomsearch.mirrors")
+  private List<String> mirrors;
+
+  /**
+   * Also use the mirrors of Maven Central configured in <code>settings.xml</code> when searching
+   * Maven Central.
+   */
+  @SuppressWarnings("unused")
+  @Parameter(property = "bomsearch.settingsMirrors", defaultValue = "false")
+  private boolean settingsMirrors;
+
+  /**
+   * Milliseconds to wait for a repository to answer before the lookup is sent to the next
+   * mirror as well. Set to 0 to ask all repositories at once.
+   */
+  @SuppressWarnings("unused")
+  @Parameter(property = "bomsearch.hedgeDelay", defaultValue = "500")
+  private int hedgeDelay;
+
+  /**
+   * Maximum number of group lookups to run concurrently.
+   */
+  @SuppressWarnings("unused")
+  @Parameter(property = "bomsearch.threads", defaultValue = "4")
+  private int threads;
+
+  /**
+   * Also look up parent groups shared by several groups in use, e.g.
+   * <code>com.fasterxml.jackson</code> for <code>com.fasterxml.jackson.core</code> and
+   * <code>com.fasterxml.jackson.datatype</code>. A parent counts all dependencies on its groups
+   * towards {@link #minOccurrence}.
+   */
+  @SuppressWarnings("unused")
+  @Parameter(property = "bomsearch.groupPrefixes", defaultValue = "false")
+  private boolean groupPrefixes;
+
+  /**
+   * Run every group lookup on a virtual thread of its own instead of a pool of {@link #threads}.
+   * Needs Java 21 or later at runtime, older JDKs fall back to the pool. Requests per host stay
+   * limited by {@link #maxConcurrentRequests}.
+   */
+  @SuppressWarnings("unused")
+  @Parameter(property = "bomsearch.virtualThreads", defaultValue = "false")
+  private boolean virtualThreads;
+
+  /**
+   * How long, in minutes, looked up groups with BOMs are remembered in the local repository
+   * across builds. Set to 0 to disable the persistent cache.
+   */
+  @SuppressWarnings("unused")
+  @Parameter(property = "bomsearch.cacheTtl", defaultValue = "1440")
+  private int cacheTtl;
+
+  /**
+   * Maximum number of groups with BOMs kept in the persistent cache.
+   */
+  @SuppressWarnings("unused")
+  @Parameter(property = "bomsearch.cacheSize", defaultValue = "10000")
+  private int cacheSize;
+
+  /**
+   * How long, in minutes, groups found to have no BOM are remembered in the local repository
+   * across builds.
+   */
+  @SuppressWarnings("unused")
+  @Parameter(property = "bomsearch.negativeCacheTtl", defaultValue = "10080")
+  private int negativeCacheTtl;
+
+  /**
+   * Maximum number of groups without BOMs remembered across builds.
+   */
+  @SuppressWarnings("unused")
+  @Parameter(property = "bomsearch.negativeCacheSize", defaultValue = "50000")
+  private int negativeCacheSize;
+
+  /**
+   * Answer lookups of groups whose cache entry expired no longer than a ttl ago from the cache
+   * right away, and refresh the entry in the background for the next build.
+   */
+  @SuppressWarnings("unused")
+  @Parameter(property = "bomsearch.staleWhileRevalidate", defaultValue = "false")
+  private boolean staleWhileRevalidate;
+
+  /**
+   * How group listings are fetched: <code>jsoup</code> opens a new connection per group,
+   * <code>pooled</code> shares keep-alive connections between all lookups of the build.
+   */
+  @SuppressWarnings("unused")
+  @Parameter(property = "bomsearch.loader", defaultValue = LOADER_JSOUP)
+  private String loader;
+
+  /**
+   * Connect timeout in milliseconds of the <code>pooled</code> loader.
+   */
+  @SuppressWarnings("unused")
+  @Parameter(property = "bomsearch.connectTimeout", defaultValue = "10000")
+  private int connectTimeout;
+
+  /**
+   * Read timeout in milliseconds of a single request. The <code>jsoup</code> loader applies it to
+   * connecting as well.
+   */
+  @SuppressWarnings("unused")
+  @Parameter(property = "bomsearch.readTimeout", defaultValue = "30000")
+  private int readTimeout;
+
+  /**
+   * How many times the <code>jsoup</code> loader retries a request failing with an I/O error or
+   * a server error.
+   */
+  @SuppressWarnings("unused")
+  @Parameter(property = "bomsearch.retries", defaultValue = "2")
+  private int retries;
+
+  /**
+   * Time budget in seconds for all lookups of an execution. Groups not looked up in time count as
+   * failed, so the search ends with partial results. Set to 0 for no limit.
+   */
+  @SuppressWarnings("unused")
+  @Parameter(property = "bomsearch.searchTimeout", defaultValue = "300")
+  private int searchTimeout;
+
+  /**
+   * Maximum number of connections per repository host of the <code>pooled</code> loader.
+   */
+  @SuppressWarnings("unused")
+  @Parameter(property = "bomsearch.maxConnectionsPerHost", defaultValue = "4")
+  private int maxConnectionsPerHost;
+
+  /**
+   * Maximum number of requests per second to a repository host, shared by all lookups of the
+   * build. Set to 0 for no limit.
+   */
+  @SuppressWarnings("unused")
+  @Parameter(property = "bomsearch.requestsPerSecond", defaultValue = "10")
+  private double requestsPerSecond;
+
+  /**
+   * Maximum number of requests running at once against a repository host, shared by all lookups
+   * of the build.
+   */
+  @SuppressWarnings("unused")
+  @Parameter(property = "bomsearch.maxConcurrentRequests", defaultValue = "4")
+  private int maxConcurrentRequests;
+
+  /**
+   * Look for BOMs already present in the local repository before going to the network. Such
+   * answers may lack BOMs never downloaded, so they are not kept in the persistent cache.
+   */
+  @SuppressWarnings("unused")
+  @Parameter(property = "bomsearch.localFirst", defaultValue = "true")
+  private boolean localFirst;
+
+  /**
+   * Answer lookups from this index, built by the <code>index</code> goal, instead of the
+   * repository. In offline mode the index in the local repository is used if present.
+   */
+  @SuppressWarnings("unused")
+  @Parameter(property = "bomsearch.index")
+  private File index;
+
+  /**
+   * Write timings and request counters of the execution as JSON to
+   * <code>${project.build.directory}/bomsearch-metrics.json</code>.
+   */
+  @SuppressWarnings("unused")
+  @Parameter(property = "bomsearch.metrics", defaultValue = "false")
+  private boolean metricsReport;
+
   private DocumentParser docParser;
 
+  @Nullable
+  private PersistentLookupCache persistentCache;
+
+  private SessionLookupCache lookupCache;
+
+  private Deadline deadline = Deadline.NONE;
+
+  @Nullable
+  private String inputHash;
+
+  @Nullable
+  private Map<String, List<String>> groupResults;
+
+  private final Map<String, Long> groupLookedUpAt = new HashMap<>();
+
+  private final SearchMetrics metrics = new SearchMetrics();
+
   @Override
   public void execute() throws MojoExecutionException {
     super.execute();
@@ -65,32 +289,453 @@ public class SearchMojo extends IncrementalSupportMojo {
       return;
     }
 
-    docParser = new DocumentParser(new JsoupDocumentLoader());
+    long start = System.nanoTime();
+    initDocParser();
+    start = phase("setup", start);
 
     Collection<DependencyModel> boms;
+    boolean searched = true;
     if (super.incremental) {
-      if (isPomFilesChanged()) {
+      boolean changed = isInputChanged();
+      start = phase("change detection", start);
+      if (changed) {
         getLog().info("Changes detected. Searching for available BOM dependencies.");
         boms = doSearch();
       } else {
         getLog().info("No changes detected.");
         boms = readBomList();
-        if (boms == null) {
+        if (boms == null || hasExpiredGroups()) {
           boms = doSearch();
+        } else {
+          searched = false;
         }
       }
     } else {
       boms = doSearch();
     }
+    start = phase("search", start);
+    if (groupResults != null) {
+      status().setGroups(mavenRepoUrl, successful(groupResults), groupLookedUpAt);
+    }
+    if (inputHash != null) {
+      status().setInputHash(inputHash);
+    }
     writeBomList(boms);
+    start = phase("status write", start);
+    savePersistentCache();
+    phase("cache save", start);
+    reportMetrics(searched);
     printResults(boms);
   }
 
+  /**
+   * Sets up the parser all lookups go through, unless there already is one.
+   */
+  protected void initDocParser() throws MojoExecutionException {
+    deadline = Deadline.in(TimeUnit.SECONDS.toMillis(getSearchTimeout()));
+    if (docParser != null) {
+      return;
+    }
+    GroupIndex groupIndex = openIndex();
+    if (groupIndex != null) {
+      docParser = new DocumentParser(
+          new IndexDocumentLoader(groupIndex, mavenRepoUrl), null, metrics);
+    } else {
+      persistentCache = loadPersistentCache();
+      docParser = new DocumentParser(createLoader(), persistentCache, metrics, createRefresher());
+      docParser.setRevalidateAll(isRevalidatingCache());
+    }
+  }
+
+  /**
+   * Tells whether every lookup goes to the repository, with a conditional request if it is
+   * cached, rather than being answered by a fresh cache entry.
+   */
+  protected boolean isRevalidatingCache() {
+    return false;
+  }
+
+  /**
+   * Returns the maximum number of group lookups to run concurrently.
+   */
+  protected int getThreads() {
+    return threads;
+  }
+
+  /**
+   * Returns the maximum number of requests running at once against a repository host.
+   */
+  protected int getMaxConcurrentRequests() {
+    return maxConcurrentRequests;
+  }
+
+  /**
+   * Returns the maximum number of requests per second to a repository host, 0 for no limit.
+   */
+  protected double getRequestsPerSecond() {
+    return requestsPerSecond;
+  }
+
+  /**
+   * Returns the time budget in seconds for all lookups of an execution, 0 for no limit.
+   */
+  protected int getSearchTimeout() {
+    return searchTimeout;
+  }
+
+  /**
+   * Tells whether expired cache entries are served while they are refreshed in the background.
+   */
+  protected boolean isStaleWhileRevalidate() {
+    return staleWhileRevalidate;
+  }
+
+  /**
+   * Tells whether lookups are answered from BOMs in the local repository when there are any.
+   */
+  protected boolean isLocalFirst() {
+    return localFirst;
+  }
+
+  /**
+   * Records the time since <code>start</code> as spent in <code>phase</code>.
+   *
+   * @return start of the next phase
+   */
+  protected long phase(String phase, long start) {
+    long now = System.nanoTime();
+    metrics.phase(phase, now - start);
+    return now;
+  }
+
+  protected void reportMetrics(boolean searched) {
+    if (searched) {
+      getLog().info(metrics.summary());
+    }
+    if (getLog().isDebugEnabled()) {
+      metrics.details().forEach(getLog()::debug);
+    }
+    if (!metricsReport) {
+      return;
+    }
+    File file = new File(project.getBuild().getDirectory(), METRICS_FILE);
+    try {
+      Files.createDirectories(file.getParentFile().toPath());
+      Files.write(file.toPath(), metrics.toJson().getBytes(StandardCharsets.UTF_8));
+      getLog().debug(String.format("Metrics written to '%s'.", file));
+    } catch (IOException e) {
+      String msg = String.format("Unable to write metrics report '%s'.", file);
+      getLog().debug(msg, e);
+      getLog().warn(msg);
+    }
+  }
+
+  /**
+   * Tells whether the search could come to a different result than last time. Only the inputs
+   * of the search are compared, see {@link #inputFingerprint()}, so pom edits that do not touch
+   * dependencies do not trigger a search, while changes inherited from parents always do. No pom
+   * file is read or searched for: the effective model already merges the module pom with all of
+   * its resolved parents.
+   */
+  @Override
+  protected boolean isInputChanged() {
+    inputHash = inputFingerprint();
+    return !inputHash.equals(status().getInputHash());
+  }
+
+  /**
+   * Hash of everything the search result depends on: groups of the effective dependencies, BOMs
+   * already imported, the minimum occurrence and the repository searched.
+   */
+  @VisibleForTesting
+  String inputFingerprint() {
+    Set<Dependency> boms = getProjectBoms(project);
+    List<String> groups = new ArrayList<>(selectGroups(project.getDependencies(), boms));
+    Collections.sort(groups);
+    List<String> bomIds = boms.stream()
+        .map(d -> d.getGroupId() + ":" + d.getArtifactId())
+        .sorted()
+        .collect(toList());
+    String inputs = String.join("\n",
+        "repository=" + mavenRepoUrl,
+        "minOccurrence=" + minOccurrence,
+        "groupPrefixes=" + groupPrefixes,
+        "boms=" + String.join(",", bomIds),
+        "groups=" + String.join(",", groups));
+    return sha256(inputs.getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * Returns the hex encoded SHA-256 of <code>data</code>.
+   */
+  private static String sha256(byte[] data) {
+    MessageDigest digest;
+    try {
+      digest = MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+    StringBuilder sb = new StringBuilder();
+    for (byte b : digest.digest(data)) {
+      sb.append(String.format("%02x", b));
+    }
+    return sb.toString();
+  }
+
+  @Nullable
+  private GroupIndex openIndex() throws MojoExecutionException {
+    File file = index;
+    if (file == null) {
+      File localRepository = localRepositoryDir();
+      if (localRepository == null || !session.isOffline()) {
+        return null;
+      }
+      file = new File(localRepository, INDEX_FILE);
+      if (!file.isFile()) {
+        return null;
+      }
+    }
+    try {
+      GroupIndex groupIndex = GroupIndex.open(file.toPath());
+      getLog().debug(String.format("Using index '%s' of %d groups.", file, groupIndex.size()));
+      return groupIndex;
+    } catch (IOException e) {
+      throw new MojoExecutionException(String.format("Unable to read index '%s'.", file), e);
+    }
+  }
+
+  private DocumentLoader createLoader() throws MojoExecutionException {
+    DocumentLoader remote = createRemoteLoader();
+    List<String> mirrorUrls = mirrorUrls();
+    if (!mirrorUrls.isEmpty()) {
+      getLog().debug(String.format("Hedging lookups across %s.", mirrorUrls));
+      // Shared like the throttled loader below it, so the build has one set of hedging threads.
+      DocumentLoader throttled = remote;
+      String key = String.format("%s:%s:%d:%s:%s", mavenRepoUrl, mirrorUrls, hedgeDelay,
+          virtualThreads, remoteLoaderKey());
+      remote = SessionScope.get(session, HedgedDocumentLoader.class, key,
+          () -> new HedgedDocumentLoader(mavenRepoUrl, mirrorUrls, throttled, hedgeDelay,
+              hedgeExecutor(mirrorUrls.size() + 1)));
+    }
+    File localRepository = localRepositoryDir();
+    if (isLocalFirst() && localRepository != null) {
+      return new LocalRepositoryDocumentLoader(localRepository.toPath(), mavenRepoUrl, remote);
+    }
+    return remote;
+  }
+
+  /**
+   * Returns the executor hedged requests run on: a virtual thread per request if enabled,
+   * otherwise a pool with a thread for every request the throttle lets through at once.
+   */
+  private ExecutorService hedgeExecutor(int repositories) {
+    ExecutorService executor = virtualThreads ? newVirtualThreadExecutor() : null;
+    return executor != null
+        ? executor
+        : HedgedDocumentLoader.newPool(Math.max(1, getMaxConcurrentRequests()) * repositories);
+  }
+
+  /**
+   * Returns the configured mirrors followed by the Maven Central mirrors from the settings, if
+   * enabled, without duplicates and without {@link #mavenRepoUrl} itself.
+   */
+  private List<String> mirrorUrls() {
+    Set<String> res = new LinkedHashSet<>();
+    if (mirrors != null) {
+      res.addAll(mirrors);
+    }
+    if (settingsMirrors && MAVEN_CENTRAL.equals(mavenRepoUrl) && session != null
+        && session.getSettings() != null) {
+      List<Server> servers = session.getSettings().getServers();
+      for (Mirror mirror : centralMirrors(session.getSettings().getMirrors())) {
+        if (hasCredentials(mirror, servers)) {
+          getLog().debug(String.format(
+              "Not hedging across mirror '%s', it needs credentials.", mirror.getId()));
+        } else {
+          res.add(mirror.getUrl());
+        }
+      }
+    }
+    res.removeIf(url -> url.trim().isEmpty() || url.equals(mavenRepoUrl));
+    return new ArrayList<>(res);
+  }
+
+  /**
+   * Returns the mirrors that stand in for Maven Central.
+   */
+  @VisibleForTesting
+  static List<Mirror> centralMirrors(List<Mirror> mirrors) {
+    return mirrors.stream()
+        .filter(m -> m.getUrl() != null && m.getMirrorOf() != null)
+        .filter(m -> {
+          List<String> of = Arrays.stream(m.getMirrorOf().split(","))
+              .map(String::trim)
+              .collect(toList());
+          return !of.contains("!central")
+              && (of.contains("central") || of.contains("*") || of.contains("external:*"));
+        })
+        .collect(toList());
+  }
+
+  /**
+   * Tells whether the settings hold credentials for <code>mirror</code>. Lookups are sent without
+   * any, so such a mirror would only answer with 401.
+   */
+  @VisibleForTesting
+  static boolean hasCredentials(Mirror mirror, List<Server> servers) {
+    return servers.stream()
+        .filter(server -> server.getId() != null && server.getId().equals(mirror.getId()))
+        .anyMatch(server -> server.getUsername() != null || server.getPassword() != null
+            || server.getPrivateKey() != null);
+  }
+
+  @Nullable
+  File localRepositoryDir() {
+    if (session == null || session.getLocalRepository() == null) {
+      return null;
+    }
+    return new File(session.getLocalRepository().getBasedir());
+  }
+
+  /**
+   * Creates the loader for the remote repository. It is throttled by a budget shared with all
+   * other lookups of the build that use the same settings.
+   */
+  private DocumentLoader createRemoteLoader() throws MojoExecutionException {
+    DocumentLoader http = createHttpLoader();
+    return SessionScope.get(session, ThrottledDocumentLoader.class, remoteLoaderKey(),
+        () -> new ThrottledDocumentLoader(http, getRequestsPerSecond(),
+            getMaxConcurrentRequests()));
+  }
+
+  /**
+   * Returns the settings that tell remote loaders of the session apart.
+   */
+  private String remoteLoaderKey() {
+    return String.format("%s:%d:%d:%d:%d:%s:%d", loader, connectTimeout, readTimeout,
+        maxConnectionsPerHost, retries, getRequestsPerSecond(), getMaxConcurrentRequests());
+  }
+
+  private DocumentLoader createHttpLoader() throws MojoExecutionException {
+    if (loader == null || LOADER_JSOUP.equals(loader)) {
+      return new JsoupDocumentLoader(readTimeout, retries);
+    } else if (LOADER_POOLED.equals(loader)) {
+      String key = String.format("%d:%d:%d", connectTimeout, readTimeout, maxConnectionsPerHost);
+      return SessionScope.get(session, PooledDocumentLoader.class, key,
+          () -> new PooledDocumentLoader(connectTimeout, readTimeout, maxConnectionsPerHost)
+              .closeOnExit());
+    } else {
+      throw new MojoExecutionException(String.format(
+          "Unknown loader '%s', expected one of: %s, %s.", loader, LOADER_JSOUP, LOADER_POOLED));
+    }
+  }
+
+  @Nullable
+  private PersistentLookupCache loadPersistentCache() {
+    File localRepository = localRepositoryDir();
+    if (cacheTtl <= 0 || localRepository == null) {
+      return null;
+    }
+    Path file = localRepository.toPath().resolve(CACHE_FILE);
+    return SessionScope.get(session, PersistentLookupCache.class, file.toString(),
+        () -> PersistentLookupCache.load(file, TimeUnit.MINUTES.toMillis(cacheTtl), cacheSize,
+            TimeUnit.MINUTES.toMillis(negativeCacheTtl), negativeCacheSize));
+  }
+
+  @Nullable
+  private BackgroundRefresher createRefresher() {
+    PersistentLookupCache cache = persistentCache;
+    if (!isStaleWhileRevalidate() || cache == null) {
+      return null;
+    }
+    String file = localRepositoryDir().toPath().resolve(CACHE_FILE).toString();
+    return SessionScope.get(session, BackgroundRefresher.class, file,
+        () -> new BackgroundRefresher(cache));
+  }
+
+  /**
+   * Tells whether lookups are remembered across builds, i.e. the persistent cache is enabled and
+   * lookups are not answered from an index.
+   */
+  protected boolean hasPersistentCache() {
+    return persistentCache != null;
+  }
+
+  protected void savePersistentCache() {
+    if (persistentCache == null) {
+      return;
+    }
+    try {
+      persistentCache.save();
+    } catch (IOException e) {
+      String msg = "Unable to write lookup cache.";
+      getLog().debug(msg, e);
+      getLog().warn(msg);
+    }
+  }
+
   private Collection<DependencyModel> doSearch() {
     Set<Dependency> bomDependencies = getProjectBoms(project);
     List<String> groups = selectGroups(project.getDependencies(), bomDependencies);
-    List<String> dedupGroups = filterGroups(groups, minOccurrence);
-    return searchForBoms(dedupGroups);
+    List<String> dedupGroups = filterGroups(groups, bomDependencies, minOccurrence);
+    if (!incremental) {
+      return searchForBoms(dedupGroups);
+    }
+
+    long now = System.currentTimeMillis();
+    Map<String, List<String>> previous = status().getGroups(mavenRepoUrl);
+    List<String> missing = dedupGroups.stream()
+        .filter(g -> !previous.containsKey(g) || isExpired(g, previous.get(g), now))
+        .collect(toList());
+    getLog().debug(String.format("Reusing results of %d groups, looking up %d.",
+        dedupGroups.size() - missing.size(), missing.size()));
+    Map<String, List<String>> fetched = lookupAll(missing);
+    groupResults = new LinkedHashMap<>();
+    for (String group : dedupGroups) {
+      if (fetched.containsKey(group)) {
+        groupResults.put(group, fetched.get(group));
+        groupLookedUpAt.put(group, now);
+      } else {
+        groupResults.put(group, previous.get(group));
+        groupLookedUpAt.put(group, status().getLookedUpAt(group));
+      }
+    }
+    return toBoms(groupResults);
+  }
+
+  /**
+   * Tells whether any lookup result recorded by the previous execution is older than the cache
+   * ttl, so that the BOMs found with it may be out of date.
+   */
+  private boolean hasExpiredGroups() {
+    long now = System.currentTimeMillis();
+    return status().getGroups(mavenRepoUrl).entrySet().stream()
+        .anyMatch(e -> isExpired(e.getKey(), e.getValue(), now));
+  }
+
+  /**
+   * Tells whether the recorded lookup result of <code>group</code> is older than the ttl the
+   * persistent cache applies to it. Results never expire with the persistent cache disabled.
+   */
+  private boolean isExpired(String group, List<String> artifactIds, long now) {
+    if (cacheTtl <= 0) {
+      return false;
+    }
+    long ttl = TimeUnit.MINUTES.toMillis(artifactIds.isEmpty() ? negativeCacheTtl : cacheTtl);
+    return now - status().getLookedUpAt(group) > ttl;
+  }
+
+  /**
+   * Drops failed lookups, so that they are retried by the next search.
+   */
+  private static Map<String, List<String>> successful(Map<String, List<String>> results) {
+    Map<String, List<String>> res = new LinkedHashMap<>();
+    results.forEach((group, ids) -> {
+      if (ids != DocumentParser.FAILED) {
+        res.put(group, ids);
+      }
+    });
+    return res;
   }
 
   private void printResults(Collection<DependencyModel> boms) {
@@ -101,15 +746,41 @@ public class SearchMojo extends IncrementalSupportMojo {
     }
   }
 
+  /**
+   * Returns the groups used at least <code>minOccurrence</code> times and, if enabled, their
+   * shared parent groups. Parents in the hierarchy of an imported BOM are left out, as that BOM
+   * would only be found again.
+   *
+   * @param groups groups, once per dependency
+   * @param boms   BOMs already imported
+   */
   @VisibleForTesting
-  protected List<String> filterGroups(Collection<String> groups, int minOccurrence) {
-    return CollectionUtils
+  protected List<String> filterGroups(Collection<String> groups, Set<Dependency> boms,
+      int minOccurrence) {
+    List<String> res = CollectionUtils
         .getCardinalityMap(groups)
         .entrySet()
         .stream()
         .filter(MIN_COUNT_PREDICATE.apply(minOccurrence))
         .map(Map.Entry::getKey)
         .collect(toList());
+    if (groupPrefixes) {
+      Set<String> bomGroups =
+          boms.stream().map(Dependency::getGroupId).collect(Collectors.toSet());
+      GroupTrie.of(groups).sharedPrefixes(minOccurrence).stream()
+          .filter(prefix -> !res.contains(prefix))
+          .filter(prefix -> bomGroups.stream().noneMatch(g -> isSameHierarchy(prefix, g)))
+          .forEach(res::add);
+    }
+    return res;
+  }
+
+  /**
+   * Tells whether one of the groups is the other or a subgroup of it.
+   */
+  @VisibleForTesting
+  static boolean isSameHierarchy(String group, String other) {
+    return group.equals(other) || group.startsWith(other + '.') || other.startsWith(group + '.');
   }
 
   private String groupIdToUri(String groupId) {
@@ -118,11 +789,15 @@ public class SearchMojo extends IncrementalSupportMojo {
 
   @VisibleForTesting
   protected Collection<DependencyModel> searchForBoms(List<String> groups) {
+    return toBoms(lookupAll(groups));
+  }
+
+  Collection<DependencyModel> toBoms(Map<String, List<String>> results) {
     Collection<DependencyModel> res = new LinkedList<>();
 
-    for (String group : groups) {
-      String uri = groupUri(group);
-      List<String> artifactIds = docParser.parseArtifactsIds(uri);
+    for (Map.Entry<String, List<String>> e : results.entrySet()) {
+      String group = e.getKey();
+      List<String> artifactIds = e.getValue();
       if (!artifactIds.isEmpty()) {
         res.add(new DependencyModel(group, artifactIds.get(0)));
         if (artifactIds.size() > 1) {
@@ -133,6 +808,152 @@ public class SearchMojo extends IncrementalSupportMojo {
     return res;
   }
 
+  /**
+   * Looks up artifact ids for every group using up to {@link #threads} concurrent requests, or a
+   * virtual thread per group if enabled. Groups not looked up within the search time budget are
+   * reported as failed.
+   *
+   * @param groups groups to look up
+   * @return artifact ids by group, in the same order as <code>groups</code>
+   */
+  @VisibleForTesting
+  Map<String, List<String>> lookupAll(List<String> groups) {
+    Map<String, List<String>> res = new LinkedHashMap<>();
+    if (lookupCache == null) {
+      lookupCache = SessionLookupCache.forSession(session);
+    }
+    ExecutorService executor = null;
+    if (groups.size() > 1 && virtualThreads) {
+      executor = newVirtualThreadExecutor();
+      if (executor == null) {
+        getLog().warn(String.format(
+            "Virtual threads are not available on Java %s, using %d lookup threads instead.",
+            System.getProperty("java.version"), getThreads()));
+      }
+    }
+    int poolSize = Math.min(getThreads(), groups.size());
+    int expired = 0;
+    if (executor == null && poolSize <= 1) {
+      for (String group : groups) {
+        if (deadline.isExpired()) {
+          res.put(group, DocumentParser.FAILED);
+          expired++;
+        } else {
+          res.put(group, lookup(groupUri(group)));
+        }
+      }
+      warnExpired(expired);
+      return res;
+    }
+
+    if (executor == null) {
+      executor = Executors.newFixedThreadPool(poolSize, new LookupThreadFactory());
+    }
+    List<CompletableFuture<List<String>>> owned = new ArrayList<>();
+    try {
+      List<CompletableFuture<List<String>>> futures = new ArrayList<>(groups.size());
+      for (String group : groups) {
+        futures.add(lookupAsync(groupUri(group), executor, owned));
+      }
+      for (int i = 0; i < groups.size(); i++) {
+        List<String> ids = awaitLookup(groups.get(i), futures.get(i));
+        if (ids == null) {
+          ids = DocumentParser.FAILED;
+          expired++;
+        }
+        res.put(groups.get(i), ids);
+      }
+    } finally {
+      executor.shutdownNow();
+      // Lookups dropped with the queue would never complete, yet other modules may wait for them.
+      owned.forEach(f -> f.complete(DocumentParser.FAILED));
+    }
+    warnExpired(expired);
+    return res;
+  }
+
+  /**
+   * Returns an executor starting a virtual thread per task, null if the running JDK has no
+   * virtual threads. Looked up reflectively, since the plugin is built for Java 8.
+   */
+  @Nullable
+  private static ExecutorService newVirtualThreadExecutor() {
+    try {
+      return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor")
+          .invoke(null);
+    } catch (ReflectiveOperationException e) {
+      return null;
+    }
+  }
+
+  private void warnExpired(int expired) {
+    if (expired > 0) {
+      getLog().warn(String.format(
+          "Search time budget of %d seconds exhausted, %d groups were not looked up.",
+          getSearchTimeout(), expired));
+    }
+  }
+
+  private List<String> lookup(String uri) {
+    long start = System.nanoTime();
+    AtomicBoolean loaded = new AtomicBoolean();
+    List<String> res = lookupCache.get(uri, u -> {
+      loaded.set(true);
+      return docParser.parseArtifactsIds(u);
+    });
+    if (!loaded.get()) {
+      metrics.lookup(uri, SearchMetrics.Source.SESSION, System.nanoTime() - start, 0);
+    }
+    return res;
+  }
+
+  /**
+   * Looks up <code>uri</code> without blocking. Blocking loaders run on <code>executor</code>,
+   * lookups answered from a cache or an index complete right away.
+   *
+   * @param owned receives the future if this call started the lookup rather than joining one
+   *              already in flight
+   */
+  private CompletableFuture<List<String>> lookupAsync(String uri, Executor executor,
+      List<CompletableFuture<List<String>>> owned) {
+    long start = System.nanoTime();
+    AtomicBoolean loaded = new AtomicBoolean();
+    CompletableFuture<List<String>> res = lookupCache.getAsync(uri, u -> {
+      loaded.set(true);
+      return docParser.parseArtifactsIdsAsync(u, executor);
+    });
+    if (loaded.get()) {
+      owned.add(res);
+    } else {
+      res.thenRun(() -> metrics.lookup(
+          uri, SearchMetrics.Source.SESSION, System.nanoTime() - start, 0));
+    }
+    return res;
+  }
+
+  /**
+   * Waits for a lookup until the search time budget is exhausted.
+   *
+   * @return artifact ids, {@link DocumentParser#FAILED} if the lookup failed, null if it did not
+   *     complete in time
+   */
+  @Nullable
+  private List<String> awaitLookup(String group, Future<List<String>> future) {
+    try {
+      return future.get(deadline.remainingNanos(), TimeUnit.NANOSECONDS);
+    } catch (TimeoutException e) {
+      return null;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      getLog().warn(String.format("Lookup for group %s interrupted.", group));
+    } catch (ExecutionException e) {
+      String msg = String.format("Lookup for group %s failed.", group);
+      getLog().debug(msg, e.getCause());
+      getLog().warn(msg);
+    }
+    return DocumentParser.FAILED;
+  }
+
   @VisibleForTesting
   String groupUri(String group) {
     return String.format("%s/%s", mavenRepoUrl, groupIdToUri(group));
@@ -162,4 +983,16 @@ public class SearchMojo extends IncrementalSupportMojo {
         .collect(Collectors.toSet());
   }
 
+  private static class LookupThreadFactory implements ThreadFactory {
+
+    private final AtomicInteger counter = new AtomicInteger();
+
+    @Override
+    public Thread newThread(Runnable r) {
+      Thread t = new Thread(r, String.format("bomsearch-lookup-%d", counter.incrementAndGet()));
+      t.setDaemon(true);
+      return t;
+    }
+  }
+
 }
@@ -0,0 +1,101 @@
+package com.github.olegzzz.maven.plugin.bomsearch;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+import javax.annotation.Nullable;
+import org.apache.maven.execution.MavenSession;
+
+/**
+ * Group lookups shared by all modules of a build.
+ *
+ * <p>An instance is kept in the repository session data, so it lives exactly as long as the
+ * Maven session. Entries are keyed by full group uri, which includes the repository url. A lookup
+ * still in flight is shared: modules built concurrently wait for the same request instead of
+ * issuing their own.
+ */
+class SessionLookupCache {
+
+  private final ConcurrentMap<String, CompletableFuture<List<String>>> lookups =
+      new ConcurrentHashMap<>();
+
+  /**
+   * Returns the cache bound to the given session, creating it on first use.
+   */
+  static SessionLookupCache forSession(@Nullable MavenSession session) {
+    return SessionScope.get(session, SessionLookupCache.class, "", SessionLookupCache::new);
+  }
+
+  /**
+   * Returns artifact ids for <code>uri</code>, calling <code>loader</code> only if no other
+   * caller has already looked it up or is looking it up right now. Failed lookups are not kept,
+   * the next caller tries again.
+   */
+  List<String> get(String uri, Function<String, List<String>> loader) {
+    CompletableFuture<List<String>> future = lookups.get(uri);
+    if (future == null) {
+      CompletableFuture<List<String>> created = new CompletableFuture<>();
+      future = lookups.putIfAbsent(uri, created);
+      if (future == null) {
+        future = created;
+        try {
+          List<String> ids = loader.apply(uri);
+          if (ids == DocumentParser.FAILED) {
+            lookups.remove(uri, created);
+          }
+          created.complete(ids);
+        } catch (RuntimeException | Error e) {
+          // Completes the shared future whatever happens, other modules are waiting on it.
+          lookups.remove(uri, created);
+          created.completeExceptionally(e);
+        }
+      }
+    }
+    return future.join();
+  }
+
+  /**
+   * Asynchronous variant of {@link #get(String, Function)}. The future returned by
+   * <code>loader</code> is shared with every caller asking for <code>uri</code> until it
+   * completes; if it fails, including lookups completed with {@link DocumentParser#FAILED} or
+   * cancelled by the caller that started them, it is dropped so that the next caller tries again.
+   */
+  CompletableFuture<List<String>> getAsync(String uri,
+      Function<String, CompletableFuture<List<String>>> loader) {
+    CompletableFuture<List<String>> future = lookups.get(uri);
+    if (future != null) {
+      return future;
+    }
+    CompletableFuture<List<String>> created = new CompletableFuture<>();
+    future = lookups.putIfAbsent(uri, created);
+    if (future != null) {
+      return future;
+    }
+    created.whenComplete((ids, e) -> {
+      if (e != null || ids == DocumentParser.FAILED) {
+        lookups.remove(uri, created);
+      }
+    });
+    CompletableFuture<List<String>> loaded;
+    try {
+      loaded = loader.apply(uri);
+    } catch (RuntimeException | Error e) {
+      loaded = new CompletableFuture<>();
+      loaded.completeExceptionally(e);
+    }
+    loaded.whenComplete((ids, e) -> {
+      if (e != null) {
+        created.completeExceptionally(e);
+      } else {
+        created.complete(ids);
+      }
+    });
+    return created;
+  }
+
+  int size() {
+    return lookups.size();
+  }
+}
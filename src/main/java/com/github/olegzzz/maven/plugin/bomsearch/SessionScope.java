@@ -0,0 +1,51 @@
+package com.github.olegzzz.maven.plugin.bomsearch;
+
+import java.util.function.Supplier;
+import javax.annotation.Nullable;
+import org.apache.maven.execution.MavenSession;
+import org.eclipse.aether.RepositorySystemSession;
+import org.eclipse.aether.SessionData;
+
+/**
+ * Keeps plugin state in the repository session data, so that it is shared by all modules of a
+ * build and discarded together with the Maven session.
+ */
+final class SessionScope {
+
+  private SessionScope() {
+  }
+
+  /**
+   * Returns the instance of <code>type</code> bound to the session under <code>name</code>,
+   * creating it on first use. Falls back to a fresh, unshared instance when the session carries
+   * no repository session.
+   *
+   * <p>The factory runs under the lock of the session data, so modules built concurrently do not
+   * each create an instance of which all but one would be dropped without being closed.
+   */
+  static <T> T get(@Nullable MavenSession session, Class<T> type, String name,
+      Supplier<T> factory) {
+    RepositorySystemSession repoSession = session == null ? null : session.getRepositorySession();
+    if (repoSession == null) {
+      return factory.get();
+    }
+    String key = String.format("%s:%s", type.getName(), name);
+    SessionData data = repoSession.getData();
+    Object current = data.get(key);
+    if (current == null) {
+      synchronized (data) {
+        current = data.get(key);
+        if (current == null) {
+          T created = factory.get();
+          data.set(key, created);
+          return created;
+        }
+      }
+    }
+    if (type.isInstance(current)) {
+      return type.cast(current);
+    }
+    // Stored by a plugin realm with a different class loader, do not interfere with it.
+    return factory.get();
+  }
+}
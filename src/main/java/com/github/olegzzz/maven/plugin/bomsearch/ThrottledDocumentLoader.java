@@ -0,0 +1,181 @@
+package com.github.olegzzz.maven.plugin.bomsearch;
+
+import java.net.URI;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nullable;
+import org.jsoup.nodes.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps the load on remote repositories within a budget.
+ *
+ * <p>Identical requests in flight at the same time are sent once and share the result. Requests
+ * to each host are limited to a number per second and a number running at once. When a host
+ * answers with 429 or 503, all requests to it pause for the delay the host asked for, or an
+ * exponentially growing one, and the request is retried a few times before it counts as failed.
+ */
+class ThrottledDocumentLoader implements DocumentLoader {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(ThrottledDocumentLoader.class);
+
+  static final int MAX_RETRIES = 3;
+  static final long INITIAL_BACKOFF_MILLIS = 1000;
+  static final long MAX_BACKOFF_MILLIS = TimeUnit.SECONDS.toMillis(30);
+
+  private final DocumentLoader delegate;
+  private final long intervalNanos;
+  private final int maxConcurrent;
+  private final long initialBackoffMillis;
+  private final ConcurrentMap<String, CompletableFuture<ConditionalResult>> inFlight =
+      new ConcurrentHashMap<>();
+  private final ConcurrentMap<String, Host> hosts = new ConcurrentHashMap<>();
+
+  /**
+   * Creates a loader.
+   *
+   * @param delegate          loader doing the actual requests
+   * @param requestsPerSecond maximum requests per second and host, 0 for no limit
+   * @param maxConcurrent     maximum requests running at once per host
+   */
+  ThrottledDocumentLoader(DocumentLoader delegate, double requestsPerSecond, int maxConcurrent) {
+    this(delegate, requestsPerSecond, maxConcurrent, INITIAL_BACKOFF_MILLIS);
+  }
+
+  ThrottledDocumentLoader(DocumentLoader delegate, double requestsPerSecond, int maxConcurrent,
+      long initialBackoffMillis) {
+    this.delegate = delegate;
+    this.intervalNanos = requestsPerSecond > 0
+        ? (long) (TimeUnit.SECONDS.toNanos(1) / requestsPerSecond)
+        : 0;
+    this.maxConcurrent = Math.max(1, maxConcurrent);
+    this.initialBackoffMillis = initialBackoffMillis;
+  }
+
+  @Nullable
+  @Override
+  public Document loadGroupByUri(String uri) {
+    return loadGroupByUri(uri, null, null).getDocument();
+  }
+
+  @Override
+  public ConditionalResult loadGroupByUri(String uri, @Nullable String etag,
+      @Nullable String lastModified) {
+    String key = uri + '\n' + etag + '\n' + lastModified;
+    CompletableFuture<ConditionalResult> own = new CompletableFuture<>();
+    CompletableFuture<ConditionalResult> existing = inFlight.putIfAbsent(key, own);
+    if (existing != null) {
+      return join(existing);
+    }
+    try {
+      own.complete(load(uri, etag, lastModified));
+    } catch (RuntimeException e) {
+      own.completeExceptionally(e);
+      throw e;
+    } finally {
+      inFlight.remove(key, own);
+    }
+    return own.join();
+  }
+
+  private ConditionalResult load(String uri, @Nullable String etag,
+      @Nullable String lastModified) {
+    Host host = hosts.computeIfAbsent(hostOf(uri), k -> new Host());
+    long backoff = initialBackoffMillis;
+    for (int attempt = 0; ; attempt++) {
+      try {
+        host.acquire();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        LOGGER.debug(String.format("Lookup of '%s' interrupted.", uri));
+        return ConditionalResult.of(null, null, null);
+      }
+      ConditionalResult result;
+      try {
+        result = delegate.loadGroupByUri(uri, etag, lastModified);
+      } finally {
+        host.release();
+      }
+      if (!result.isThrottled()) {
+        return result;
+      }
+      if (attempt == MAX_RETRIES) {
+        LOGGER.warn(String.format(
+            "Unable to fetch dependencies for uri '%s', repository still throttling after %d "
+                + "attempts.", uri, attempt + 1));
+        return ConditionalResult.of(null, null, null);
+      }
+      long delay = result.getRetryAfterMillis() > 0
+          ? Math.min(result.getRetryAfterMillis(), MAX_BACKOFF_MILLIS)
+          : backoff;
+      LOGGER.debug(String.format("Repository throttled '%s', pausing for %d ms.", uri, delay));
+      host.pause(TimeUnit.MILLISECONDS.toNanos(delay));
+      backoff = Math.min(backoff * 2, MAX_BACKOFF_MILLIS);
+    }
+  }
+
+  private static ConditionalResult join(CompletableFuture<ConditionalResult> future) {
+    try {
+      return future.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw e;
+    }
+  }
+
+  private static String hostOf(String uri) {
+    try {
+      String host = URI.create(uri).getHost();
+      return host != null ? host : "";
+    } catch (IllegalArgumentException e) {
+      return "";
+    }
+  }
+
+  /**
+   * Request budget of a single host.
+   */
+  private class Host {
+
+    private final Semaphore running = new Semaphore(maxConcurrent);
+    private long nextSlot = System.nanoTime();
+    private long pausedUntil = nextSlot;
+
+    /**
+     * Waits for a free request slot and the start time it is allowed to go out at.
+     */
+    void acquire() throws InterruptedException {
+      running.acquire();
+      try {
+        long wait;
+        synchronized (this) {
+          long now = System.nanoTime();
+          long start = Math.max(now, Math.max(nextSlot, pausedUntil));
+          nextSlot = start + intervalNanos;
+          wait = start - now;
+        }
+        if (wait > 0) {
+          TimeUnit.NANOSECONDS.sleep(wait);
+        }
+      } catch (InterruptedException e) {
+        running.release();
+        throw e;
+      }
+    }
+
+    void release() {
+      running.release();
+    }
+
+    synchronized void pause(long nanos) {
+      pausedUntil = Math.max(pausedUntil, System.nanoTime() + nanos);
+    }
+  }
+}
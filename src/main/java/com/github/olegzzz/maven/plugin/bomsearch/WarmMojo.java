@@ -0,0 +1,169 @@
+package com.github.olegzzz.maven.plugin.bomsearch;
+
+import com.google.common.annotations.VisibleForTesting;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.project.MavenProject;
+
+/**
+ * Looks up groups in one batch and stores the results in the persistent lookup cache, so that
+ * later builds, e.g. on a freshly provisioned CI agent, find them there.
+ *
+ * <p>Groups are taken from the dependencies of all projects of the reactor, from the list given
+ * in {@link #groups} and, if enabled, from every group found in the local repository. Every group
+ * is looked up in the repository, cached ones with a conditional request, under a concurrency,
+ * rate and time budget of its own.
+ */
+@Mojo(name = "warm", requiresProject = false, aggregator = true)
+public class WarmMojo extends SearchMojo {
+
+  /**
+   * Further groups to look up.
+   */
+  @SuppressWarnings("unused")
+  @Parameter(property = "bomsearch.groups")
+  private List<String> groups;
+
+  /**
+   * Also look up every group found in the local repository.
+   */
+  @SuppressWarnings("unused")
+  @Parameter(property = "bomsearch.scanLocalRepository", defaultValue = "false")
+  private boolean scanLocalRepository;
+
+  /**
+   * Maximum number of groups looked up concurrently while warming, which is also the number of
+   * requests running at once against a repository host.
+   */
+  @SuppressWarnings("unused")
+  @Parameter(property = "bomsearch.warmThreads", defaultValue = "16")
+  private int warmThreads;
+
+  /**
+   * Maximum number of requests per second to a repository host while warming. Set to 0 for no
+   * limit.
+   */
+  @SuppressWarnings("unused")
+  @Parameter(property = "bomsearch.warmRequestsPerSecond", defaultValue = "20")
+  private double warmRequestsPerSecond;
+
+  /**
+   * Time budget in seconds for warming, in place of the search timeout. Set to 0 for no limit.
+   */
+  @SuppressWarnings("unused")
+  @Parameter(property = "bomsearch.warmTimeout", defaultValue = "0")
+  private int warmTimeout;
+
+  @Override
+  public void execute() throws MojoExecutionException {
+    if (skip) {
+      return;
+    }
+
+    long start = System.nanoTime();
+    initDocParser();
+    start = phase("setup", start);
+    if (!hasPersistentCache()) {
+      getLog().warn("The lookup cache is disabled or lookups are answered from an index, "
+          + "nothing to warm.");
+      return;
+    }
+
+    SortedSet<String> all = collectGroups();
+    start = phase("group collection", start);
+    getLog().info(String.format("Warming the lookup cache with %d groups.", all.size()));
+    Map<String, List<String>> results = lookupAll(new ArrayList<>(all));
+    final long failed = results.values().stream()
+        .filter(ids -> ids == DocumentParser.FAILED)
+        .count();
+    start = phase("search", start);
+
+    savePersistentCache();
+    phase("cache save", start);
+    reportMetrics(true);
+    getLog().info(String.format("Cached lookups of %d groups, %d failed.",
+        results.size() - failed, failed));
+  }
+
+  /**
+   * Revalidates cached lookups, fresh or not, so that they are good for a full ttl afterwards.
+   */
+  @Override
+  protected boolean isRevalidatingCache() {
+    return true;
+  }
+
+  @Override
+  protected int getThreads() {
+    return warmThreads;
+  }
+
+  @Override
+  protected int getMaxConcurrentRequests() {
+    return warmThreads;
+  }
+
+  @Override
+  protected double getRequestsPerSecond() {
+    return warmRequestsPerSecond;
+  }
+
+  @Override
+  protected int getSearchTimeout() {
+    return warmTimeout;
+  }
+
+  /**
+   * Refreshes entries rather than serving them stale.
+   */
+  @Override
+  protected boolean isStaleWhileRevalidate() {
+    return false;
+  }
+
+  /**
+   * Asks the repository for every group, since answers from the local repository are not cached.
+   */
+  @Override
+  protected boolean isLocalFirst() {
+    return false;
+  }
+
+  /**
+   * Returns the groups to look up, sorted and without duplicates. Every group counts, whatever
+   * {@link #minOccurrence} says, so that builds with any setting find their lookups cached.
+   */
+  @VisibleForTesting
+  SortedSet<String> collectGroups() throws MojoExecutionException {
+    SortedSet<String> res = new TreeSet<>();
+    if (session != null && session.getProjects() != null) {
+      for (MavenProject p : session.getProjects()) {
+        res.addAll(selectGroups(p.getDependencies(), getProjectBoms(p)));
+      }
+    }
+    if (groups != null) {
+      groups.stream().map(String::trim).filter(g -> !g.isEmpty()).forEach(res::add);
+    }
+    File localRepository = localRepositoryDir();
+    if (scanLocalRepository && localRepository != null) {
+      try {
+        res.addAll(GroupIndex.scan(localRepository.toPath(), name -> true).keySet());
+      } catch (IOException e) {
+        throw new MojoExecutionException(
+            String.format("Unable to scan local repository '%s'.", localRepository), e);
+      }
+    }
+    // Parent groups a build would look up with groupPrefixes enabled.
+    res.addAll(filterGroups(res, Collections.emptySet(), 1));
+    return res;
+  }
+}
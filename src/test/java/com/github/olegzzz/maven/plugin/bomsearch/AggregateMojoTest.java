@@ -0,0 +1,122 @@
+package com.github.olegzzz.maven.plugin.bomsearch;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.model.Dependency;
+import org.apache.maven.model.Model;
+import org.apache.maven.plugin.logging.Log;
+import org.apache.maven.plugin.testing.MojoRule;
+import org.apache.maven.project.MavenProject;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+public class AggregateMojoTest {
+
+  @Rule
+  public final MojoRule mojoRule = new MojoRule();
+
+  private AggregateMojo mojo;
+  private MavenProject parent;
+  private MavenProject web;
+  private MavenProject core;
+
+  @Before
+  public void setUp() throws Exception {
+    parent = project("parent", "pom");
+    web = project("web", "jar", "org.springframework", "io.dropwizard");
+    core = project("core", "jar", "org.springframework", "com.google.guava");
+
+    mojo = new AggregateMojo();
+    mojoRule.setVariableValueToObject(mojo, "minOccurrence", 2);
+    mojoRule.setVariableValueToObject(mojo, "threads", 1);
+    mojoRule.setVariableValueToObject(mojo, "mavenRepoUrl", SearchMojo.MAVEN_CENTRAL);
+  }
+
+  @Test
+  public void counts_groups_across_modules_without_pom_projects() {
+    Map<MavenProject, List<String>> groups = mojo.collectGroups(asList(parent, web, core));
+
+    assertEquals(asList(web, core), new ArrayList<>(groups.keySet()));
+    assertEquals(asList("org.springframework"),
+        mojo.filterGroups(asList("org.springframework", "io.dropwizard", "org.springframework",
+            "com.google.guava"), Collections.emptySet(), 2));
+  }
+
+  @Test
+  public void attributes_boms_to_modules_using_their_group() {
+    DependencyModel spring = new DependencyModel("org.springframework", "spring-framework-bom");
+    DependencyModel dropwizard = new DependencyModel("io.dropwizard", "dropwizard-bom");
+
+    Map<MavenProject, List<DependencyModel>> res = AggregateMojo.attribute(
+        asList(spring, dropwizard), mojo.collectGroups(asList(parent, web, core)));
+
+    assertEquals(asList(spring, dropwizard), res.get(web));
+    assertEquals(Collections.singletonList(spring), res.get(core));
+  }
+
+  @Test
+  public void attributes_parent_group_boms_to_modules_using_subgroups() {
+    DependencyModel jackson = new DependencyModel("com.fasterxml.jackson", "jackson-bom");
+    Map<MavenProject, List<String>> groups = new LinkedHashMap<>();
+    groups.put(web, asList("com.fasterxml.jackson.core", "com.fasterxml.jackson.datatype"));
+    groups.put(core, Collections.singletonList("com.fasterxml.jacksonx"));
+
+    Map<MavenProject, List<DependencyModel>> res =
+        AggregateMojo.attribute(Collections.singletonList(jackson), groups);
+
+    assertEquals(Collections.singletonList(jackson), res.get(web));
+    assertFalse(res.containsKey(core));
+  }
+
+  @Test
+  public void looks_up_each_qualifying_group_once() throws Exception {
+    MavenSession session = mock(MavenSession.class);
+    when(session.getProjects()).thenReturn(asList(parent, web, core));
+    mojoRule.setVariableValueToObject(mojo, "session", session);
+    mojoRule.setVariableValueToObject(mojo, "project", parent);
+    DocumentParser docParser = mock(DocumentParser.class);
+    when(docParser.parseArtifactsIds(anyString()))
+        .thenReturn(Collections.singletonList("spring-framework-bom"));
+    mojoRule.setVariableValueToObject(mojo, "docParser", docParser);
+    Log log = mock(Log.class);
+    mojo.setLog(log);
+
+    mojo.execute();
+
+    verify(docParser).parseArtifactsIds(SearchMojo.MAVEN_CENTRAL + "/org/springframework");
+    verify(log).info(startsWith(
+        "Following BOMs found for reactor: [org.springframework:spring-framework-bom]."));
+    verify(log).info(startsWith("Following BOMs apply to module web"));
+    verify(log).info(startsWith("Following BOMs apply to module core"));
+  }
+
+  private static MavenProject project(String artifactId, String packaging, String... groups) {
+    MavenProject project = new MavenProject();
+    project.setOriginalModel(new Model());
+    project.setArtifactId(artifactId);
+    project.setPackaging(packaging);
+    List<Dependency> deps = new ArrayList<>();
+    for (String group : groups) {
+      Dependency d = new Dependency();
+      d.setGroupId(group);
+      d.setArtifactId(group.substring(group.lastIndexOf('.') + 1));
+      deps.add(d);
+    }
+    project.setDependencies(deps);
+    return project;
+  }
+}
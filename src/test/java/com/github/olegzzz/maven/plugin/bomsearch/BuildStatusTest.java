@@ -0,0 +1,118 @@
+package com.github.olegzzz.maven.plugin.bomsearch;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class BuildStatusTest {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private Path file;
+
+  @Before
+  public void setUp() {
+    file = folder.getRoot().toPath().resolve("status.bin");
+  }
+
+  @Test
+  public void reads_what_was_written() throws IOException {
+    Map<String, List<String>> groups = new LinkedHashMap<>();
+    groups.put("org.foo", Arrays.asList("foo-bom", "foo-dependencies-bom"));
+    groups.put("org.bar", Collections.emptyList());
+    BuildStatus status = new BuildStatus();
+    status.setBoms(Collections.singletonList(new DependencyModel("org.foo", "foo-bom")));
+    status.setInputHash("abc");
+    status.setGroups("https://repo", groups);
+    status.write(file);
+
+    BuildStatus read = BuildStatus.read(file);
+
+    assertEquals(status.getBoms(), read.getBoms());
+    assertEquals("abc", read.getInputHash());
+    assertEquals(groups, read.getGroups("https://repo"));
+  }
+
+  @Test
+  public void reads_lookup_times_of_groups() throws IOException {
+    BuildStatus status = new BuildStatus();
+    status.setGroups("https://repo",
+        Collections.singletonMap("org.foo", Collections.singletonList("foo-bom")),
+        Collections.singletonMap("org.foo", 1234L));
+    status.write(file);
+
+    BuildStatus read = BuildStatus.read(file);
+
+    assertEquals(1234L, read.getLookedUpAt("org.foo"));
+    assertEquals(0L, read.getLookedUpAt("org.bar"));
+  }
+
+  @Test
+  public void keeps_absent_values_absent() throws IOException {
+    new BuildStatus().write(file);
+
+    BuildStatus read = BuildStatus.read(file);
+
+    assertNull(read.getBoms());
+    assertNull(read.getInputHash());
+    assertTrue(read.getGroups("https://repo").isEmpty());
+  }
+
+  @Test
+  public void returns_no_groups_for_other_repository() throws IOException {
+    BuildStatus status = new BuildStatus();
+    status.setGroups("https://repo",
+        Collections.singletonMap("org.foo", Collections.singletonList("foo-bom")));
+
+    assertTrue(status.getGroups("https://other").isEmpty());
+  }
+
+  @Test(expected = IOException.class)
+  public void rejects_other_version() throws IOException {
+    BuildStatus status = new BuildStatus();
+    status.setInputHash("abc");
+    status.write(file);
+    byte[] bytes = Files.readAllBytes(file);
+    bytes[4]--;
+    Files.write(file, bytes);
+
+    BuildStatus.read(file);
+  }
+
+  @Test(expected = IOException.class)
+  public void rejects_corrupt_file() throws IOException {
+    BuildStatus status = new BuildStatus();
+    status.setInputHash("abc");
+    status.write(file);
+    byte[] bytes = Files.readAllBytes(file);
+    bytes[bytes.length - 1] ^= 1;
+    Files.write(file, bytes);
+
+    BuildStatus.read(file);
+  }
+
+  @Test(expected = IOException.class)
+  public void rejects_truncated_file() throws IOException {
+    BuildStatus status = new BuildStatus();
+    status.setInputHash("abc");
+    status.write(file);
+    byte[] bytes = Files.readAllBytes(file);
+    Files.write(file, Arrays.copyOf(bytes, bytes.length - 1));
+
+    BuildStatus.read(file);
+  }
+}
@@ -1,17 +1,32 @@
 package com.github.olegzzz.maven.plugin.bomsearch;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
 import org.jsoup.select.Elements;
+import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.experimental.runners.Enclosed;
+import org.junit.rules.TemporaryFolder;
 import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
@@ -65,4 +80,186 @@ public class DocumentParserTest {
     }
   }
 
+  public static class WithCache {
+
+    @Rule
+    public MockitoRule rule = MockitoJUnit.rule();
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Mock
+    private DocumentLoader loader;
+
+    private Document doc;
+
+    @Before
+    public void setUp() {
+      Elements elements = new Elements();
+      Element element1 = new Element("a");
+      element1.attr("title", "some-bom");
+      element1.attr("href", "some-bom/");
+      elements.add(element1);
+      doc = mock(Document.class);
+      when(doc.select(anyString())).thenReturn(elements);
+    }
+
+    @Test
+    public void answers_from_cache_after_first_load() {
+      when(loader.loadGroupByUri(anyString(), isNull(), isNull()))
+          .thenReturn(ConditionalResult.of(doc, null, null));
+      DocumentParser parser = new DocumentParser(loader, cache(TimeUnit.HOURS.toMillis(1)));
+
+      assertEquals(Collections.singletonList("some-bom"), parser.parseArtifactsIds("foo/bar"));
+      assertEquals(Collections.singletonList("some-bom"), parser.parseArtifactsIds("foo/bar"));
+      verify(loader, times(1)).loadGroupByUri("foo/bar", null, null);
+    }
+
+    @Test
+    public void does_not_cache_failed_loads() {
+      when(loader.loadGroupByUri(anyString(), isNull(), isNull()))
+          .thenReturn(ConditionalResult.of(null, null, null));
+      PersistentLookupCache cache = cache(TimeUnit.HOURS.toMillis(1));
+      DocumentParser parser = new DocumentParser(loader, cache);
+
+      assertTrue(parser.parseArtifactsIds("foo/bar").isEmpty());
+      assertNull(cache.get("foo/bar"));
+    }
+
+    @Test
+    public void does_not_cache_local_listings() {
+      when(loader.loadGroupByUri(anyString(), isNull(), isNull()))
+          .thenReturn(ConditionalResult.local(doc));
+      PersistentLookupCache cache = cache(TimeUnit.HOURS.toMillis(1));
+      DocumentParser parser = new DocumentParser(loader, cache);
+
+      assertEquals(Collections.singletonList("some-bom"), parser.parseArtifactsIds("foo/bar"));
+      assertNull(cache.get("foo/bar"));
+    }
+
+    @Test
+    public void revalidates_expired_entry_with_validators() {
+      PersistentLookupCache cache = cache(-1);
+      cache.put("foo/bar", Collections.singletonList("cached-bom"), "\"abc\"", null);
+      when(loader.loadGroupByUri("foo/bar", "\"abc\"", null))
+          .thenReturn(ConditionalResult.notModified());
+      DocumentParser parser = new DocumentParser(loader, cache);
+
+      assertEquals(Collections.singletonList("cached-bom"), parser.parseArtifactsIds("foo/bar"));
+      verify(loader, times(1)).loadGroupByUri("foo/bar", "\"abc\"", null);
+    }
+
+    @Test
+    public void replaces_expired_entry_when_listing_changed() {
+      PersistentLookupCache cache = cache(-1);
+      cache.put("foo/bar", Collections.singletonList("cached-bom"), null, "yesterday");
+      when(loader.loadGroupByUri("foo/bar", null, "yesterday"))
+          .thenReturn(ConditionalResult.of(doc, "\"def\"", "today"));
+      DocumentParser parser = new DocumentParser(loader, cache);
+
+      assertEquals(Collections.singletonList("some-bom"), parser.parseArtifactsIds("foo/bar"));
+      assertEquals("\"def\"", cache.peek("foo/bar").getEtag());
+      assertEquals("today", cache.peek("foo/bar").getLastModified());
+    }
+
+    @Test
+    public void answers_from_expired_entry_when_load_fails() {
+      PersistentLookupCache cache = cache(-1);
+      cache.put("foo/bar", Collections.singletonList("cached-bom"), "\"abc\"", null);
+      when(loader.loadGroupByUri("foo/bar", "\"abc\"", null))
+          .thenReturn(ConditionalResult.of(null, null, null));
+      SearchMetrics metrics = new SearchMetrics();
+      DocumentParser parser = new DocumentParser(loader, cache, metrics);
+
+      assertEquals(Collections.singletonList("cached-bom"), parser.parseArtifactsIds("foo/bar"));
+      assertEquals(1, metrics.count(SearchMetrics.Source.STALE));
+    }
+
+    @Test
+    public void revalidates_fresh_entry_when_revalidating_all() {
+      PersistentLookupCache cache = cache(TimeUnit.HOURS.toMillis(1));
+      cache.put("foo/bar", Collections.singletonList("cached-bom"), "\"abc\"", null);
+      when(loader.loadGroupByUri("foo/bar", "\"abc\"", null))
+          .thenReturn(ConditionalResult.of(doc, "\"def\"", null));
+      DocumentParser parser = new DocumentParser(loader, cache);
+      parser.setRevalidateAll(true);
+
+      assertEquals(Collections.singletonList("some-bom"), parser.parseArtifactsIds("foo/bar"));
+      assertEquals("\"def\"", cache.peek("foo/bar").getEtag());
+    }
+
+    @Test
+    public void answers_from_cache_without_executor() {
+      PersistentLookupCache cache = cache(TimeUnit.HOURS.toMillis(1));
+      cache.put("foo/bar", Collections.singletonList("cached-bom"));
+      DocumentParser parser = new DocumentParser(loader, cache);
+
+      CompletableFuture<List<String>> ids = parser.parseArtifactsIdsAsync("foo/bar", task -> {
+        throw new AssertionError("executor used");
+      });
+
+      assertEquals(Collections.singletonList("cached-bom"), ids.join());
+    }
+
+    @Test
+    public void revalidates_expired_entry_asynchronously() {
+      PersistentLookupCache cache = cache(-1);
+      cache.put("foo/bar", Collections.singletonList("cached-bom"), "\"abc\"", null);
+      when(loader.loadGroupByUriAsync(eq("foo/bar"), eq("\"abc\""), isNull(), any()))
+          .thenReturn(CompletableFuture.completedFuture(ConditionalResult.notModified()));
+      DocumentParser parser = new DocumentParser(loader, cache);
+
+      assertEquals(Collections.singletonList("cached-bom"),
+          parser.parseArtifactsIdsAsync("foo/bar", Runnable::run).join());
+    }
+
+    @Test
+    public void loads_and_caches_asynchronously() {
+      when(loader.loadGroupByUriAsync(eq("foo/bar"), isNull(), isNull(), any()))
+          .thenReturn(CompletableFuture.completedFuture(ConditionalResult.of(doc, null, null)));
+      PersistentLookupCache cache = cache(TimeUnit.HOURS.toMillis(1));
+      DocumentParser parser = new DocumentParser(loader, cache);
+
+      assertEquals(Collections.singletonList("some-bom"),
+          parser.parseArtifactsIdsAsync("foo/bar", Runnable::run).join());
+      assertEquals(Collections.singletonList("some-bom"), cache.get("foo/bar"));
+    }
+
+    @Test
+    public void serves_recently_expired_entry_and_refreshes_it() {
+      PersistentLookupCache cache = cache(TimeUnit.HOURS.toMillis(1));
+      cache.put("foo/bar", Collections.singletonList("cached-bom"), "\"abc\"", null,
+          System.currentTimeMillis() - TimeUnit.MINUTES.toMillis(90));
+      when(loader.loadGroupByUri("foo/bar", "\"abc\"", null))
+          .thenReturn(ConditionalResult.of(doc, "\"def\"", null));
+      List<Runnable> refreshes = new ArrayList<>();
+      DocumentParser parser = new DocumentParser(loader, cache, null,
+          new BackgroundRefresher(cache, refreshes::add));
+
+      assertEquals(Collections.singletonList("cached-bom"), parser.parseArtifactsIds("foo/bar"));
+      verify(loader, never()).loadGroupByUri(anyString(), any(), any());
+
+      refreshes.forEach(Runnable::run);
+      assertEquals(Collections.singletonList("some-bom"), cache.get("foo/bar"));
+      assertTrue(Files.exists(folder.getRoot().toPath().resolve("lookups.bin")));
+    }
+
+    @Test
+    public void loads_entry_expired_too_long_ago() {
+      PersistentLookupCache cache = cache(TimeUnit.HOURS.toMillis(1));
+      cache.put("foo/bar", Collections.singletonList("cached-bom"), "\"abc\"", null,
+          System.currentTimeMillis() - TimeUnit.HOURS.toMillis(3));
+      when(loader.loadGroupByUri("foo/bar", "\"abc\"", null))
+          .thenReturn(ConditionalResult.of(doc, "\"def\"", null));
+      DocumentParser parser = new DocumentParser(loader, cache, null,
+          new BackgroundRefresher(cache, Runnable::run));
+
+      assertEquals(Collections.singletonList("some-bom"), parser.parseArtifactsIds("foo/bar"));
+    }
+
+    private PersistentLookupCache cache(long ttl) {
+      return new PersistentLookupCache(folder.getRoot().toPath().resolve("lookups.bin"), ttl, 10);
+    }
+  }
+
 }
\ No newline at end of file
@@ -0,0 +1,46 @@
+package com.github.olegzzz.maven.plugin.bomsearch;
+
+import static org.junit.Assert.assertEquals;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class FileLocksTest {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void serializes_read_modify_write_across_threads() throws Exception {
+    Path file = folder.getRoot().toPath().resolve("state/counter");
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      List<Future<Void>> futures = new ArrayList<>();
+      for (int i = 0; i < 100; i++) {
+        futures.add(executor.submit(() -> FileLocks.withLock(file, () -> {
+          int count = Files.exists(file)
+              ? Integer.parseInt(new String(Files.readAllBytes(file), StandardCharsets.UTF_8))
+              : 0;
+          Files.write(file, String.valueOf(count + 1).getBytes(StandardCharsets.UTF_8));
+          return null;
+        })));
+      }
+      for (Future<Void> future : futures) {
+        future.get();
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    assertEquals("100", new String(Files.readAllBytes(file), StandardCharsets.UTF_8));
+  }
+}
@@ -0,0 +1,82 @@
+package com.github.olegzzz.maven.plugin.bomsearch;
+
+import static java.util.Arrays.asList;
+import static java.util.stream.Collectors.toList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import org.jsoup.nodes.Document;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class GroupIndexTest {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void finds_every_written_group() throws IOException {
+    SortedMap<String, List<String>> groups = new TreeMap<>();
+    for (int i = 0; i < 500; i++) {
+      groups.put(String.format("org.group%d", i), Collections.singletonList(i + "-bom"));
+    }
+    groups.put("org.multi", asList("a-bom", "b-bom"));
+    Path file = folder.getRoot().toPath().resolve("index.bin");
+    GroupIndex.write(file, groups);
+
+    GroupIndex index = GroupIndex.open(file);
+    assertEquals(groups.size(), index.size());
+    for (SortedMap.Entry<String, List<String>> e : groups.entrySet()) {
+      assertEquals(e.getValue(), index.lookup(e.getKey()));
+    }
+    assertTrue(index.lookup("org.missing").isEmpty());
+    assertTrue(index.lookup("").isEmpty());
+  }
+
+  @Test
+  public void scans_bom_artifacts_of_repository_tree() throws IOException {
+    Path repo = folder.getRoot().toPath();
+    touch(repo, "org/foo/foo-bom/1.0/foo-bom-1.0.pom");
+    touch(repo, "org/foo/foo-core/1.0/foo-core-1.0.pom");
+    touch(repo, "org/foo/sub/sub-bom/maven-metadata-central.xml");
+    touch(repo, "io/bar/bar-bom/2.0/bar-bom-2.0.pom");
+    touch(repo, ".cache/x/x-bom/1.0/x-bom-1.0.pom");
+
+    SortedMap<String, List<String>> groups = GroupIndex.scan(repo);
+
+    assertEquals(asList("io.bar", "org.foo", "org.foo.sub"), new ArrayList<>(groups.keySet()));
+    assertEquals(Collections.singletonList("foo-bom"), groups.get("org.foo"));
+  }
+
+  @Test
+  public void loader_answers_group_uris_from_index() throws IOException {
+    SortedMap<String, List<String>> groups = new TreeMap<>();
+    groups.put("org.foo", Collections.singletonList("foo-bom"));
+    Path file = folder.getRoot().toPath().resolve("index.bin");
+    GroupIndex.write(file, groups);
+    IndexDocumentLoader loader =
+        new IndexDocumentLoader(GroupIndex.open(file), SearchMojo.MAVEN_CENTRAL);
+
+    Document doc = loader.loadGroupByUri(SearchMojo.MAVEN_CENTRAL + "/org/foo");
+
+    assertEquals(Collections.singletonList("foo-bom/"),
+        doc.select(SearchMojo.TAG_A).stream().map(SearchMojo.GET_HREF).collect(toList()));
+    assertTrue(loader.loadGroupByUri(SearchMojo.MAVEN_CENTRAL + "/org/bar").select("a").isEmpty());
+  }
+
+  private static void touch(Path repo, String path) throws IOException {
+    Path file = repo.resolve(path);
+    Files.createDirectories(file.getParent());
+    Files.createFile(file);
+  }
+
+}
@@ -0,0 +1,55 @@
+package com.github.olegzzz.maven.plugin.bomsearch;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+import java.util.List;
+import org.junit.Test;
+
+public class GroupTrieTest {
+
+  @Test
+  public void returns_parent_shared_by_sibling_groups() {
+    GroupTrie trie = GroupTrie.of(asList(
+        "com.fasterxml.jackson.core", "com.fasterxml.jackson.core",
+        "com.fasterxml.jackson.datatype", "com.fasterxml.jackson.module"));
+
+    assertEquals(Collections.singletonList("com.fasterxml.jackson"), trie.sharedPrefixes(3));
+  }
+
+  @Test
+  public void returns_parent_that_is_a_group_itself() {
+    GroupTrie trie = GroupTrie.of(asList("org.eclipse.jetty", "org.eclipse.jetty.http2"));
+
+    assertEquals(Collections.singletonList("org.eclipse.jetty"), trie.sharedPrefixes(2));
+  }
+
+  @Test
+  public void skips_prefixes_below_min_occurrence() {
+    GroupTrie trie =
+        GroupTrie.of(asList("com.fasterxml.jackson.core", "com.fasterxml.jackson.datatype"));
+
+    assertTrue(trie.sharedPrefixes(3).isEmpty());
+  }
+
+  @Test
+  public void skips_shallow_prefixes() {
+    GroupTrie trie = GroupTrie.of(asList("org.foo", "org.bar", "io.netty", "io.netty.incubator",
+        "org.apache.commons", "org.apache.logging"));
+
+    assertTrue(trie.sharedPrefixes(1).isEmpty());
+  }
+
+  @Test
+  public void returns_each_branching_prefix_once() {
+    GroupTrie trie = GroupTrie.of(asList(
+        "org.apache.commons", "org.apache.maven.shared", "org.apache.maven.plugins",
+        "org.apache.maven.plugins.tools", "org.apache.maven.plugins.tools"));
+
+    List<String> prefixes = trie.sharedPrefixes(2);
+
+    assertEquals(asList("org.apache.maven", "org.apache.maven.plugins"), prefixes);
+  }
+}
@@ -0,0 +1,145 @@
+package com.github.olegzzz.maven.plugin.bomsearch;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nullable;
+import org.jsoup.nodes.Document;
+import org.junit.Test;
+
+public class HedgedDocumentLoaderTest {
+
+  private static final String PRIMARY = "https://primary.example.com/maven2";
+  private static final String MIRROR = "https://mirror.example.com/maven2/";
+  private static final String GROUP = PRIMARY + "/org/foo/";
+
+  private final StubLoader stub = new StubLoader();
+
+  @Test
+  public void asks_mirror_when_primary_is_slow() {
+    stub.delays.put("primary", 5_000L);
+    HedgedDocumentLoader loader = loader(50);
+
+    long start = System.nanoTime();
+    Document document = loader.loadGroupByUri(GROUP);
+
+    assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(4));
+    assertEquals(MIRROR + "org/foo/", document.location());
+  }
+
+  @Test
+  public void interrupts_slower_requests_once_one_answers() throws InterruptedException {
+    stub.delays.put("primary", 5_000L);
+    HedgedDocumentLoader loader = loader(50);
+
+    loader.loadGroupByUri(GROUP);
+
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+    while (stub.interrupted.isEmpty() && System.nanoTime() < deadline) {
+      Thread.sleep(10);
+    }
+    assertEquals(Collections.singletonList("primary"), stub.interrupted);
+  }
+
+  @Test
+  public void does_not_ask_mirror_when_primary_answers_in_time() {
+    HedgedDocumentLoader loader = loader(5_000);
+
+    assertEquals(GROUP, loader.loadGroupByUri(GROUP).location());
+    assertEquals(Collections.singletonList(GROUP), stub.requested);
+  }
+
+  @Test
+  public void asks_mirror_right_away_when_primary_fails() {
+    stub.failing.add("primary");
+    HedgedDocumentLoader loader = loader(5_000);
+
+    long start = System.nanoTime();
+    Document document = loader.loadGroupByUri(GROUP);
+
+    assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(4));
+    assertEquals(MIRROR + "org/foo/", document.location());
+  }
+
+  @Test
+  public void sends_validators_to_primary_only() {
+    stub.failing.add("primary");
+    HedgedDocumentLoader loader = loader(5_000);
+
+    ConditionalResult result = loader.loadGroupByUri(GROUP, "\"primary\"", null);
+
+    assertEquals(Collections.singletonList(GROUP), stub.conditional);
+    assertEquals(MIRROR + "org/foo/", result.getDocument().location());
+    assertNull(result.getEtag());
+  }
+
+  @Test
+  public void fails_when_all_repositories_fail() {
+    stub.failing.addAll(asList("primary", "mirror"));
+    HedgedDocumentLoader loader = loader(0);
+
+    assertNull(loader.loadGroupByUri(GROUP));
+    assertEquals(2, stub.requested.size());
+  }
+
+  @Test
+  public void passes_other_uris_through() {
+    HedgedDocumentLoader loader = loader(0);
+
+    loader.loadGroupByUri("https://other.example.com/org/foo/");
+
+    assertEquals(Collections.singletonList("https://other.example.com/org/foo/"), stub.requested);
+  }
+
+  private HedgedDocumentLoader loader(long hedgeDelayMillis) {
+    return new HedgedDocumentLoader(PRIMARY, Collections.singletonList(MIRROR), stub,
+        hedgeDelayMillis, HedgedDocumentLoader.newPool(2));
+  }
+
+  /**
+   * Answers with an empty listing located at the requested uri, after a delay or not at all,
+   * depending on the host.
+   */
+  private static class StubLoader implements DocumentLoader {
+
+    private final Map<String, Long> delays = new ConcurrentHashMap<>();
+    private final List<String> failing = new CopyOnWriteArrayList<>();
+    private final List<String> requested = new CopyOnWriteArrayList<>();
+    private final List<String> conditional = new CopyOnWriteArrayList<>();
+    private final List<String> interrupted = new CopyOnWriteArrayList<>();
+
+    @Nullable
+    @Override
+    public Document loadGroupByUri(String uri) {
+      return loadGroupByUri(uri, null, null).getDocument();
+    }
+
+    @Override
+    public ConditionalResult loadGroupByUri(String uri, @Nullable String etag,
+        @Nullable String lastModified) {
+      requested.add(uri);
+      if (etag != null) {
+        conditional.add(uri);
+      }
+      String host = uri.substring("https://".length(), uri.indexOf('.'));
+      try {
+        Thread.sleep(delays.getOrDefault(host, 0L));
+      } catch (InterruptedException e) {
+        interrupted.add(host);
+        Thread.currentThread().interrupt();
+        return ConditionalResult.of(null, null, null);
+      }
+      return failing.contains(host)
+          ? ConditionalResult.of(null, null, null)
+          : ConditionalResult.of(Document.createShell(uri), '"' + host + '"', null);
+    }
+  }
+}
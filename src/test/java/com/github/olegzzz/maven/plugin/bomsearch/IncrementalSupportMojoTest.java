@@ -19,7 +19,7 @@ import org.mockito.junit.MockitoRule;
 @RunWith(Enclosed.class)
 public class IncrementalSupportMojoTest {
 
-  public static class ReadStatusFile {
+  public static class ReadStatus {
 
     @Rule
     public final MojoRule mojoRule = new MojoRule();
@@ -41,16 +41,16 @@ public class IncrementalSupportMojoTest {
     @Test
     public void returns_null_when_unable_to_read_status_dir() throws MojoExecutionException {
       when(buildHelper.getMojoStatusDirectory()).thenThrow(new MojoExecutionException("Expected"));
-      assertNull(mojo.readStatusFile("foobar"));
+      assertNull(mojo.readStatus());
     }
 
     @Test
-    public void returns_empty_list_if_file_does_not_exist() throws MojoExecutionException {
+    public void returns_null_if_file_does_not_exist() throws MojoExecutionException {
       File fakeFile = new File("");
       when(buildHelper.getMojoStatusDirectory()).thenReturn(fakeFile);
-      assertNull(mojo.readStatusFile("foobar"));
+      assertNull(mojo.readStatus());
     }
 
   }
 
-}
\ No newline at end of file
+}
@@ -1,11 +1,63 @@
 package com.github.olegzzz.maven.plugin.bomsearch;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.jsoup.nodes.Document;
+import org.junit.After;
+import org.junit.Before;
 import org.junit.Test;
 
 public class JsoupDocumentLoaderTest {
 
+  private static final byte[] LISTING = ("<html><body><pre>"
+      + "<a href=\"foo-bom/\" title=\"foo-bom/\">foo-bom/</a>\n"
+      + "</pre></body></html>").getBytes(StandardCharsets.UTF_8);
+
+  private HttpServer server;
+  private final AtomicInteger requests = new AtomicInteger();
+
+  @Before
+  public void setUp() throws IOException {
+    server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    server.createContext("/org/flaky", exchange -> {
+      if (requests.incrementAndGet() == 1) {
+        exchange.sendResponseHeaders(502, -1);
+      } else {
+        exchange.getResponseHeaders().add("Content-Type", "text/html; charset=UTF-8");
+        exchange.sendResponseHeaders(200, LISTING.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+          out.write(LISTING);
+        }
+      }
+      exchange.close();
+    });
+    server.createContext("/org/missing", exchange -> {
+      requests.incrementAndGet();
+      exchange.sendResponseHeaders(404, -1);
+      exchange.close();
+    });
+    server.createContext("/org/forbidden", exchange -> {
+      requests.incrementAndGet();
+      exchange.sendResponseHeaders(403, -1);
+      exchange.close();
+    });
+    server.start();
+  }
+
+  @After
+  public void tearDown() {
+    server.stop(0);
+  }
+
   @Test
   public void returns_null_when_exception() {
 
@@ -15,4 +67,51 @@ public class JsoupDocumentLoaderTest {
 
   }
 
-}
\ No newline at end of file
+  @Test
+  public void retries_server_errors() {
+    DocumentLoader loader = new JsoupDocumentLoader(1000, 1);
+
+    assertNotNull(loader.loadGroupByUri(uri("flaky")));
+    assertEquals(2, requests.get());
+  }
+
+  @Test
+  public void gives_up_after_retries() {
+    DocumentLoader loader = new JsoupDocumentLoader(1000, 0);
+
+    assertNull(loader.loadGroupByUri(uri("flaky")));
+    assertEquals(1, requests.get());
+  }
+
+  @Test
+  public void does_not_retry_client_errors() {
+    DocumentLoader loader = new JsoupDocumentLoader(1000, 2);
+
+    assertNull(loader.loadGroupByUri(uri("forbidden")));
+    assertEquals(1, requests.get());
+  }
+
+  @Test
+  public void returns_empty_listing_for_missing_group() {
+    DocumentLoader loader = new JsoupDocumentLoader(1000, 2);
+
+    Document document = loader.loadGroupByUri(uri("missing"));
+
+    assertNotNull(document);
+    assertTrue(document.select(SearchMojo.TAG_A).isEmpty());
+    assertEquals(1, requests.get());
+  }
+
+  @Test
+  public void backoff_is_bounded() {
+    for (int attempt = 0; attempt < 40; attempt++) {
+      long delay = JsoupDocumentLoader.backoff(attempt);
+      assertTrue(delay >= 0);
+      assertTrue(delay <= JsoupDocumentLoader.MAX_BACKOFF_MILLIS);
+    }
+  }
+
+  private String uri(String group) {
+    return String.format("http://localhost:%d/org/%s/", server.getAddress().getPort(), group);
+  }
+}
@@ -0,0 +1,85 @@
+package com.github.olegzzz.maven.plugin.bomsearch;
+
+import static java.util.stream.Collectors.toList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.jsoup.nodes.Document;
+import org.junit.Test;
+
+public class ListingScannerTest {
+
+  private static final String LISTING = "<!DOCTYPE html>\n"
+      + "<html>\n"
+      + "<head><title>Central Repository: org/springframework</title>\n"
+      + "<style>body { background: #fff; } a <b> {}</style></head>\n"
+      + "<body>\n"
+      + "<header><h1>org/springframework</h1></header>\n"
+      + "<hr/>\n"
+      + "<main>\n"
+      + "<pre id=\"contents\">\n"
+      + "<a href=\"../\">../</a>\n"
+      + "<a href=\"spring-aop/\" title=\"spring-aop/\">spring-aop/</a>        2021-01-01 10:00  -\n"
+      + "<!-- <a href=\"commented-bom/\" title=\"commented-bom/\">commented-bom/</a> -->\n"
+      + "<a href=\"spring-framework-bom/\" title=\"spring-framework-bom/\">"
+      + "spring-framework-bom/</a>  2021-01-01 10:00  -\n"
+      + "<A HREF='spring-session-bom/' TITLE='spring-session-bom/'>spring-session-bom/</A>\n"
+      + "<a href=spring-web/ title=spring-web/>spring-web/</a>\n"
+      + "</pre>\n"
+      + "<a href=\"after-listing-bom/\" title=\"after-listing-bom/\">after-listing-bom/</a>\n"
+      + "</main>\n"
+      + "</body>\n"
+      + "</html>";
+
+  private final ListingScanner scanner = new ListingScanner(SearchMojo.TITLE_BOM);
+
+  @Test
+  public void keeps_only_matching_anchors_of_the_listing() throws IOException {
+    assertEquals(
+        Arrays.asList("spring-framework-bom/", "spring-session-bom/"), hrefs(scan(LISTING)));
+  }
+
+  @Test
+  public void keeps_all_anchors_if_filter_accepts_all() throws IOException {
+    ListingScanner all = new ListingScanner(el -> true);
+    List<String> hrefs = hrefs(all.scan(new StringReader(LISTING), "https://repo/org"));
+
+    assertEquals(
+        Arrays.asList("../", "spring-aop/", "spring-framework-bom/", "spring-session-bom/",
+            "spring-web/"),
+        hrefs);
+  }
+
+  @Test
+  public void decodes_entities_in_attributes() throws IOException {
+    Document doc = scan("<pre><a href=\"a&amp;b-bom/\" title=\"a&amp;b-bom/\">x</a></pre>");
+    assertEquals(Collections.singletonList("a&b-bom/"), hrefs(doc));
+  }
+
+  @Test
+  public void scans_listings_without_pre_block() throws IOException {
+    Document doc = scan("<table><tr><td><a href=\"x-bom/\" title=\"x-bom/\">x</a></td></tr>"
+        + "<tr><td><a href=\"y-bom/\" title=\"y-bom/\">y</a></td></tr></table>"
+        + "</body><a href=\"z-bom/\" title=\"z-bom/\">z</a>");
+    assertEquals(Arrays.asList("x-bom/", "y-bom/"), hrefs(doc));
+  }
+
+  @Test
+  public void tolerates_truncated_input() throws IOException {
+    assertTrue(hrefs(scan("<pre><a href=\"x-bom/\" title=\"x-b")).isEmpty());
+  }
+
+  private Document scan(String html) throws IOException {
+    return scanner.scan(new StringReader(html), "https://repo/org");
+  }
+
+  private static List<String> hrefs(Document doc) {
+    return doc.select(SearchMojo.TAG_A).stream().map(SearchMojo.GET_HREF).collect(toList());
+  }
+
+}
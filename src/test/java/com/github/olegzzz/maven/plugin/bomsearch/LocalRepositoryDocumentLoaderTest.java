@@ -0,0 +1,93 @@
+package com.github.olegzzz.maven.plugin.bomsearch;
+
+import static java.util.stream.Collectors.toList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.jsoup.nodes.Document;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class LocalRepositoryDocumentLoaderTest {
+
+  private static final String REMOTE = "https://repo.example.com/maven2";
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private DocumentLoader remote;
+  private LocalRepositoryDocumentLoader loader;
+  private Path repo;
+
+  @Before
+  public void setUp() {
+    repo = folder.getRoot().toPath();
+    remote = mock(DocumentLoader.class);
+    loader = new LocalRepositoryDocumentLoader(repo, REMOTE, remote);
+  }
+
+  @Test
+  public void resolves_boms_present_in_local_repository() throws IOException {
+    touch("org/foo/foo-bom/1.0/foo-bom-1.0.pom");
+    touch("org/foo/foo-parent-bom/maven-metadata-central.xml");
+    touch("org/foo/foo-core/1.0/foo-core-1.0.pom");
+    Files.createDirectories(repo.resolve("org/foo/empty-bom"));
+
+    Document doc = loader.loadGroupByUri(REMOTE + "/org/foo");
+
+    assertEquals(Arrays.asList("foo-bom/", "foo-parent-bom/"), hrefs(doc));
+    verifyNoInteractions(remote);
+  }
+
+  @Test
+  public void marks_local_listing_as_not_cacheable() throws IOException {
+    touch("org/foo/foo-bom/1.0/foo-bom-1.0.pom");
+
+    ConditionalResult result = loader.loadGroupByUri(REMOTE + "/org/foo", null, null);
+
+    assertEquals(Collections.singletonList("foo-bom/"), hrefs(result.getDocument()));
+    assertFalse(result.isCacheable());
+  }
+
+  @Test
+  public void goes_to_remote_if_group_has_no_local_bom() throws IOException {
+    touch("org/foo/foo-core/1.0/foo-core-1.0.pom");
+    Document remoteDoc = Document.createShell(REMOTE);
+    when(remote.loadGroupByUri(REMOTE + "/org/foo")).thenReturn(remoteDoc);
+
+    assertSame(remoteDoc, loader.loadGroupByUri(REMOTE + "/org/foo"));
+  }
+
+  @Test
+  public void goes_to_remote_if_group_is_missing_locally() {
+    ConditionalResult notModified = ConditionalResult.notModified();
+    when(remote.loadGroupByUri(REMOTE + "/org/bar", "\"x\"", null)).thenReturn(notModified);
+
+    assertSame(notModified, loader.loadGroupByUri(REMOTE + "/org/bar", "\"x\"", null));
+    verify(remote).loadGroupByUri(REMOTE + "/org/bar", "\"x\"", null);
+  }
+
+  private void touch(String path) throws IOException {
+    Path file = repo.resolve(path);
+    Files.createDirectories(file.getParent());
+    Files.createFile(file);
+  }
+
+  private static List<String> hrefs(Document doc) {
+    return doc.select(SearchMojo.TAG_A).stream().map(SearchMojo.GET_HREF).collect(toList());
+  }
+
+}
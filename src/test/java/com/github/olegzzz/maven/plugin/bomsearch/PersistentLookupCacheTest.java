@@ -0,0 +1,180 @@
+package com.github.olegzzz.maven.plugin.bomsearch;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class PersistentLookupCacheTest {
+
+  private static final long TTL = TimeUnit.HOURS.toMillis(1);
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private Path file;
+
+  @Before
+  public void setUp() {
+    file = folder.getRoot().toPath().resolve("cache/lookups.bin");
+  }
+
+  @Test
+  public void returns_saved_entries_after_reload() throws IOException {
+    PersistentLookupCache cache = PersistentLookupCache.load(file, TTL, 10);
+    cache.put("repo/org/foo", asList("foo-bom", "foo-parent-bom"));
+    cache.put("repo/org/bar", Collections.emptyList());
+    cache.save();
+
+    PersistentLookupCache reloaded = PersistentLookupCache.load(file, TTL, 10);
+    assertEquals(asList("foo-bom", "foo-parent-bom"), reloaded.get("repo/org/foo"));
+    assertEquals(Collections.emptyList(), reloaded.get("repo/org/bar"));
+    assertNull(reloaded.get("repo/org/baz"));
+  }
+
+  @Test
+  public void ignores_expired_entries() throws IOException {
+    PersistentLookupCache cache = PersistentLookupCache.load(file, -1, 10);
+    cache.put("repo/org/foo", Collections.singletonList("foo-bom"));
+
+    assertNull(cache.get("repo/org/foo"));
+  }
+
+  @Test
+  public void keeps_expired_entries_with_validators_for_revalidation() throws IOException {
+    PersistentLookupCache cache = PersistentLookupCache.load(file, -1, 10);
+    cache.put("repo/org/foo", Collections.singletonList("foo-bom"), "\"abc\"", null);
+    cache.put("repo/org/bar", Collections.singletonList("bar-bom"));
+    cache.save();
+
+    PersistentLookupCache reloaded = PersistentLookupCache.load(file, -1, 10);
+    assertNull(reloaded.get("repo/org/foo"));
+    assertEquals("\"abc\"", reloaded.peek("repo/org/foo").getEtag());
+    assertNull(reloaded.peek("repo/org/bar"));
+    assertEquals(Collections.singletonList("foo-bom"), reloaded.revalidate("repo/org/foo"));
+  }
+
+  @Test
+  public void evicts_oldest_entries_beyond_max_size() throws Exception {
+    PersistentLookupCache cache = PersistentLookupCache.load(file, TTL, 2);
+    cache.put("repo/org/a", Collections.singletonList("a-bom"));
+    Thread.sleep(5);
+    cache.put("repo/org/b", Collections.singletonList("b-bom"));
+    Thread.sleep(5);
+    cache.put("repo/org/c", Collections.singletonList("c-bom"));
+    cache.save();
+
+    PersistentLookupCache reloaded = PersistentLookupCache.load(file, TTL, 2);
+    assertEquals(2, reloaded.size());
+    assertNull(reloaded.get("repo/org/a"));
+  }
+
+  @Test
+  public void keeps_negative_entries_with_their_own_ttl() throws Exception {
+    PersistentLookupCache cache = PersistentLookupCache.load(file, -1, 10, TTL, 10);
+    cache.put("repo/org/none", Collections.emptyList());
+    cache.put("repo/org/foo", Collections.singletonList("foo-bom"));
+
+    assertEquals(Collections.emptyList(), cache.get("repo/org/none"));
+    assertNull(cache.get("repo/org/foo"));
+  }
+
+  @Test
+  public void evicts_negative_entries_separately() throws Exception {
+    PersistentLookupCache cache = PersistentLookupCache.load(file, TTL, 1, TTL, 1);
+    cache.put("repo/org/a", Collections.singletonList("a-bom"));
+    cache.put("repo/org/none1", Collections.emptyList());
+    Thread.sleep(5);
+    cache.put("repo/org/none2", Collections.emptyList());
+    cache.save();
+
+    PersistentLookupCache reloaded = PersistentLookupCache.load(file, TTL, 1, TTL, 1);
+    assertEquals(2, reloaded.size());
+    assertEquals(Collections.singletonList("a-bom"), reloaded.get("repo/org/a"));
+    assertEquals(Collections.emptyList(), reloaded.get("repo/org/none2"));
+  }
+
+  @Test
+  public void merges_entries_saved_by_others() throws IOException {
+    PersistentLookupCache first = PersistentLookupCache.load(file, TTL, 10);
+    PersistentLookupCache second = PersistentLookupCache.load(file, TTL, 10);
+    first.put("repo/org/a", Collections.singletonList("a-bom"));
+    second.put("repo/org/b", Collections.singletonList("b-bom"));
+    first.save();
+    second.save();
+
+    assertEquals(2, PersistentLookupCache.load(file, TTL, 10).size());
+  }
+
+  @Test
+  public void starts_empty_if_file_is_corrupt() throws IOException {
+    Files.createDirectories(file.getParent());
+    Files.write(file, new byte[] {1, 2, 3});
+
+    assertEquals(0, PersistentLookupCache.load(file, TTL, 10).size());
+  }
+
+  @Test
+  public void saves_entries_put_while_saving() throws Exception {
+    PersistentLookupCache cache = PersistentLookupCache.load(file, TTL, 1000);
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      for (int i = 0; i < 100; i++) {
+        cache.put("repo/org/old" + i, Collections.singletonList("old-bom"));
+        Future<?> saving = executor.submit(() -> {
+          cache.save();
+          return null;
+        });
+        cache.put("repo/org/new" + i, Collections.singletonList("new-bom"));
+        saving.get();
+        cache.save();
+
+        assertEquals(Collections.singletonList("new-bom"),
+            PersistentLookupCache.load(file, TTL, 1000).get("repo/org/new" + i));
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void keeps_entries_of_concurrent_saves() throws Exception {
+    List<PersistentLookupCache> caches = new ArrayList<>();
+    for (int i = 0; i < 8; i++) {
+      PersistentLookupCache cache = PersistentLookupCache.load(file, TTL, 100);
+      cache.put("repo/org/foo" + i, Collections.singletonList("foo-bom"));
+      caches.add(cache);
+    }
+    ExecutorService executor = Executors.newFixedThreadPool(caches.size());
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (PersistentLookupCache cache : caches) {
+        futures.add(executor.submit(() -> {
+          cache.save();
+          return null;
+        }));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    assertEquals(caches.size(), PersistentLookupCache.load(file, TTL, 100).size());
+  }
+}
@@ -0,0 +1,158 @@
+package com.github.olegzzz.maven.plugin.bomsearch;
+
+import static java.util.stream.Collectors.toList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.jsoup.nodes.Document;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class PooledDocumentLoaderTest {
+
+  private static final String ETAG = "\"v1\"";
+  private static final byte[] LISTING = ("<html><body><pre>"
+      + "<a href=\"foo-core/\" title=\"foo-core/\">foo-core/</a>\n"
+      + "<a href=\"foo-bom/\" title=\"foo-bom/\">foo-bom/</a>\n"
+      + "</pre></body></html>").getBytes(StandardCharsets.UTF_8);
+  private static final byte[] LONG_LISTING = longListing();
+
+  private HttpServer server;
+  private PooledDocumentLoader loader;
+  private final Set<Object> clients = ConcurrentHashMap.newKeySet();
+
+  @Before
+  public void setUp() throws IOException {
+    server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    server.createContext("/org/foo", exchange -> {
+      clients.add(exchange.getRemoteAddress());
+      if (ETAG.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+        exchange.sendResponseHeaders(304, -1);
+      } else {
+        exchange.getResponseHeaders().add("Content-Type", "text/html; charset=UTF-8");
+        exchange.getResponseHeaders().add("ETag", ETAG);
+        exchange.sendResponseHeaders(200, LISTING.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+          out.write(LISTING);
+        }
+      }
+      exchange.close();
+    });
+    server.createContext("/org/long", exchange -> {
+      clients.add(exchange.getRemoteAddress());
+      exchange.getResponseHeaders().add("Content-Type", "text/html; charset=UTF-8");
+      exchange.sendResponseHeaders(200, LONG_LISTING.length);
+      try (OutputStream out = exchange.getResponseBody()) {
+        out.write(LONG_LISTING);
+      } catch (IOException e) {
+        // the client aborted the request
+      }
+      exchange.close();
+    });
+    server.createContext("/org/forbidden", exchange -> {
+      exchange.sendResponseHeaders(403, -1);
+      exchange.close();
+    });
+    server.createContext("/org/busy", exchange -> {
+      exchange.getResponseHeaders().add("Retry-After", "2");
+      exchange.sendResponseHeaders(429, -1);
+      exchange.close();
+    });
+    server.start();
+    loader = new PooledDocumentLoader(1000, 1000, 2);
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    loader.close();
+    server.stop(0);
+  }
+
+  @Test
+  public void returns_bom_anchors_and_validators() {
+    ConditionalResult result = loader.loadGroupByUri(uri(), null, null);
+
+    assertEquals(Collections.singletonList("foo-bom/"), hrefs(result.getDocument()));
+    assertEquals(ETAG, result.getEtag());
+  }
+
+  @Test
+  public void returns_not_modified_for_matching_etag() {
+    assertTrue(loader.loadGroupByUri(uri(), ETAG, null).isNotModified());
+  }
+
+  @Test
+  public void reuses_connections() {
+    for (int i = 0; i < 5; i++) {
+      loader.loadGroupByUri(uri());
+    }
+    assertEquals(1, clients.size());
+  }
+
+  @Test
+  public void aborts_request_when_scanner_stops_early() {
+    ConditionalResult result = loader.loadGroupByUri(uri().replace("/org/foo", "/org/long"),
+        null, null);
+
+    assertEquals(Collections.singletonList("foo-bom/"), hrefs(result.getDocument()));
+    assertTrue(result.getBytes() < LONG_LISTING.length / 2);
+    loader.loadGroupByUri(uri().replace("/org/foo", "/org/long"));
+    assertEquals(2, clients.size());
+  }
+
+  @Test
+  public void returns_null_when_exception() {
+    assertNull(
+        loader.loadGroupByUri(String.format("https://foobar%s.com", System.currentTimeMillis())));
+  }
+
+  @Test
+  public void returns_null_on_error_status() {
+    assertNull(loader.loadGroupByUri(uri().replace("/org/foo", "/org/forbidden")));
+  }
+
+  @Test
+  public void returns_empty_listing_for_missing_group() {
+    Document document = loader.loadGroupByUri(uri().replace("/org/foo", "/missing"));
+
+    assertTrue(hrefs(document).isEmpty());
+  }
+
+  @Test
+  public void returns_throttled_with_retry_after() {
+    ConditionalResult result = loader.loadGroupByUri(uri().replace("/org/foo", "/org/busy"),
+        null, null);
+
+    assertTrue(result.isThrottled());
+    assertEquals(2000, result.getRetryAfterMillis());
+  }
+
+  private static byte[] longListing() {
+    byte[] trailer = new byte[1024 * 1024];
+    Arrays.fill(trailer, (byte) ' ');
+    byte[] listing = Arrays.copyOf(LISTING, LISTING.length + trailer.length);
+    System.arraycopy(trailer, 0, listing, LISTING.length, trailer.length);
+    return listing;
+  }
+
+  private String uri() {
+    return String.format("http://localhost:%d/org/foo", server.getAddress().getPort());
+  }
+
+  private static List<String> hrefs(Document doc) {
+    return doc.select(SearchMojo.TAG_A).stream().map(SearchMojo.GET_HREF).collect(toList());
+  }
+
+}
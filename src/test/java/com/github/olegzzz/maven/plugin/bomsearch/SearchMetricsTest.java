@@ -0,0 +1,93 @@
+package com.github.olegzzz.maven.plugin.bomsearch;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import org.jsoup.nodes.Document;
+import org.junit.Test;
+import org.junit.experimental.runners.Enclosed;
+import org.junit.runner.RunWith;
+
+@RunWith(Enclosed.class)
+public class SearchMetricsTest {
+
+  public static class Totals {
+
+    @Test
+    public void counts_lookups_by_source() {
+      SearchMetrics metrics = new SearchMetrics();
+      metrics.lookup("a", SearchMetrics.Source.LOADED, 10, 100);
+      metrics.lookup("b", SearchMetrics.Source.LOADED, 10, 50);
+      metrics.lookup("c", SearchMetrics.Source.CACHE, 10, 0);
+      metrics.lookup("d", SearchMetrics.Source.FAILED, 10, 0);
+      metrics.lookup("e", SearchMetrics.Source.STALE, 10, 0);
+
+      assertEquals(2, metrics.count(SearchMetrics.Source.LOADED));
+      assertEquals(1, metrics.count(SearchMetrics.Source.CACHE));
+      assertEquals(0, metrics.count(SearchMetrics.Source.SESSION));
+      assertEquals(1, metrics.count(SearchMetrics.Source.STALE));
+      assertEquals(150, metrics.bytes());
+      assertEquals("5 group lookups: 2 loaded (150 bytes decompressed), 0 revalidated, "
+          + "1 cached, 0 shared, 1 stale, 1 failed.", metrics.summary());
+    }
+
+    @Test
+    public void sums_phase_durations() {
+      SearchMetrics metrics = new SearchMetrics();
+      metrics.phase("search", TimeUnit.MILLISECONDS.toNanos(3));
+      metrics.phase("search", TimeUnit.MILLISECONDS.toNanos(4));
+
+      assertEquals(Collections.singletonList("Phase search took 7 ms."), metrics.details());
+    }
+  }
+
+  public static class Json {
+
+    @Test
+    public void writes_empty_report() {
+      String json = new SearchMetrics().toJson();
+
+      assertTrue(json, json.contains("\"phases\": {},"));
+      assertTrue(json, json.contains("\"lookups\": []"));
+    }
+
+    @Test
+    public void escapes_strings() {
+      SearchMetrics metrics = new SearchMetrics();
+      metrics.lookup("a\"b\\c\n", SearchMetrics.Source.SESSION, 0, 0);
+
+      assertTrue(metrics.toJson(), metrics.toJson()
+          .contains("{\"uri\": \"a\\\"b\\\\c\\u000a\", \"source\": \"session\""));
+    }
+  }
+
+  public static class Parser {
+
+    @Test
+    public void records_loaded_and_failed_lookups() {
+      DocumentLoader loader = mock(DocumentLoader.class);
+      Document doc = Document.createShell("");
+      doc.body().appendElement("a").attr("title", "foo-bom/").attr("href", "foo-bom/");
+      when(loader.loadGroupByUri(eq("ok"), isNull(), isNull()))
+          .thenReturn(ConditionalResult.of(doc, null, null, 42));
+      when(loader.loadGroupByUri(eq("fail"), any(), any()))
+          .thenReturn(ConditionalResult.of(null, null, null));
+      SearchMetrics metrics = new SearchMetrics();
+      DocumentParser parser = new DocumentParser(loader, null, metrics);
+
+      assertEquals(Arrays.asList("foo-bom"), parser.parseArtifactsIds("ok"));
+      assertEquals(Collections.emptyList(), parser.parseArtifactsIds("fail"));
+      assertEquals(1, metrics.count(SearchMetrics.Source.LOADED));
+      assertEquals(1, metrics.count(SearchMetrics.Source.FAILED));
+      assertEquals(42, metrics.bytes());
+    }
+  }
+}
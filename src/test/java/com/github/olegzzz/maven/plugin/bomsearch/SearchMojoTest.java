@@ -3,8 +3,10 @@ package com.github.olegzzz.maven.plugin.bomsearch;
 import static com.github.olegzzz.maven.plugin.bomsearch.SearchMojo.GET_HREF;
 import static com.github.olegzzz.maven.plugin.bomsearch.SearchMojo.TITLE_BOM;
 import static java.util.Arrays.asList;
+import static java.util.stream.Collectors.toList;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertTrue;
 
 import java.util.Collection;
@@ -19,6 +21,8 @@ import org.apache.maven.model.Dependency;
 import org.apache.maven.model.DependencyManagement;
 import org.apache.maven.model.Model;
 import org.apache.maven.project.MavenProject;
+import org.apache.maven.settings.Mirror;
+import org.apache.maven.settings.Server;
 import org.jsoup.nodes.Element;
 import org.junit.Before;
 import org.junit.Test;
@@ -252,10 +256,101 @@ public class SearchMojoTest {
       String group2 = "org.group2";
 
       Collection<String> groups = asList(group1, group1, group1, group2);
-      List<String> filtered = mojo.filterGroups(groups, 3);
+      List<String> filtered = mojo.filterGroups(groups, Collections.emptySet(), 3);
       assertEquals(1, filtered.size());
       assertTrue(filtered.contains(group1));
     }
 
   }
-}
\ No newline at end of file
+
+  public static class CentralMirrors {
+
+    @Test
+    public void returns_mirrors_of_central() {
+      List<Mirror> mirrors = asList(
+          mirror("https://central.example.com/maven2", "central"),
+          mirror("https://all.example.com/maven2", "*,!snapshots"),
+          mirror("https://external.example.com/maven2", "external:*"),
+          mirror("https://other.example.com/maven2", "snapshots"),
+          mirror("https://not-central.example.com/maven2", "*,!central"));
+
+      assertEquals(
+          asList("https://central.example.com/maven2", "https://all.example.com/maven2",
+              "https://external.example.com/maven2"),
+          SearchMojo.centralMirrors(mirrors).stream().map(Mirror::getUrl).collect(toList()));
+    }
+
+    @Test
+    public void tells_mirrors_with_credentials() {
+      Mirror open = mirror("https://open.example.com/maven2", "central");
+      open.setId("open");
+      Mirror secured = mirror("https://secured.example.com/maven2", "central");
+      secured.setId("secured");
+      Server openServer = new Server();
+      openServer.setId("open");
+      Server securedServer = new Server();
+      securedServer.setId("secured");
+      securedServer.setUsername("deployer");
+      securedServer.setPassword("secret");
+      List<Server> servers = asList(openServer, securedServer);
+
+      assertFalse(SearchMojo.hasCredentials(open, servers));
+      assertTrue(SearchMojo.hasCredentials(secured, servers));
+    }
+
+    private static Mirror mirror(String url, String mirrorOf) {
+      Mirror mirror = new Mirror();
+      mirror.setUrl(url);
+      mirror.setMirrorOf(mirrorOf);
+      return mirror;
+    }
+
+  }
+
+  public static class InputFingerprint extends Base {
+
+    private MavenProject project;
+
+    @Before
+    public void setUpProject() {
+      project = new MavenProject();
+      project.setOriginalModel(new Model());
+      project.setDependencies(asList(
+          createDependency("org.foo", "jar", "compile"),
+          createDependency("org.bar", "jar", "test")));
+      mojo.project = project;
+    }
+
+    @Test
+    public void ignores_dependency_order_and_unrelated_changes() {
+      String before = mojo.inputFingerprint();
+      project.setDependencies(asList(
+          createDependency("org.bar", "jar", "test"),
+          createDependency("org.foo", "jar", "compile")));
+      project.setDescription("changed");
+
+      assertEquals(before, mojo.inputFingerprint());
+    }
+
+    @Test
+    public void changes_when_groups_change() {
+      String before = mojo.inputFingerprint();
+      project.setDependencies(asList(
+          createDependency("org.foo", "jar", "compile"),
+          createDependency("org.foo", "jar", "test")));
+
+      assertNotEquals(before, mojo.inputFingerprint());
+    }
+
+    @Test
+    public void changes_when_boms_are_imported() {
+      String before = mojo.inputFingerprint();
+      DependencyManagement management = new DependencyManagement();
+      management.setDependencies(
+          Collections.singletonList(createDependency("org.baz", "pom", "import")));
+      project.getOriginalModel().setDependencyManagement(management);
+
+      assertNotEquals(before, mojo.inputFingerprint());
+    }
+  }
+}
@@ -1,10 +1,13 @@
 package com.github.olegzzz.maven.plugin.bomsearch;
 
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.startsWith;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.reset;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
@@ -12,10 +15,18 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.io.File;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import org.apache.maven.execution.MavenSession;
 import org.apache.maven.model.Dependency;
+import org.apache.maven.model.DependencyManagement;
 import org.apache.maven.model.Model;
 import org.apache.maven.plugin.MojoExecution;
 import org.apache.maven.plugin.descriptor.MojoDescriptor;
@@ -56,13 +67,13 @@ public class SearchMojoTestCase extends AbstractMojoTestCase {
     Log log = mock(Log.class);
     mojo.setLog(log);
 
-    doNothing().when(mojo).writeStatusFile(anyString(), anyString());
+    doNothing().when(mojo).writeStatus(any());
 
     mojo.execute();
 
     verify(log).debug(startsWith("Incremental build disabled."));
     verify(log).info(startsWith("No suitable BOMs found."));
-    verify(mojo).writeStatusFile(anyString(), anyString());
+    verify(mojo).writeStatus(any());
   }
 
   public void test_basic_search() throws Exception {
@@ -73,15 +84,123 @@ public class SearchMojoTestCase extends AbstractMojoTestCase {
     project.setOriginalModel(new Model());
 
     setupDependencies(mojo);
-    setupDocParser(mojo, "spring-bom");
-    doNothing().when(mojo).writeStatusFile(anyString(), anyString());
+    setupDocParser(mojo, "spring-framework-bom");
+    doNothing().when(mojo).writeStatus(any());
 
     mojo.execute();
 
     verify(log).debug(startsWith("Incremental build disabled."));
     verify(log).info(
         startsWith("Following BOMs found for module: [org.springframework:spring-framework-bom]."));
-    verify(mojo).writeStatusFile(anyString(), anyString());
+    verify(mojo).writeStatus(any());
+  }
+
+  public void test_group_prefixes_skip_imported_bom_hierarchy() throws Exception {
+    SearchMojo mojo = spy(getMojo("search-basic"));
+    mojo.setLog(log);
+    setVariableValueToObject(mojo, "groupPrefixes", true);
+
+    MavenProject project = (MavenProject) getVariableValueFromObject(mojo, "project");
+    Dependency jacksonBom = new Dependency();
+    jacksonBom.setGroupId("com.fasterxml.jackson");
+    jacksonBom.setArtifactId("jackson-bom");
+    jacksonBom.setType("pom");
+    jacksonBom.setScope("import");
+    DependencyManagement dependencyManagement = new DependencyManagement();
+    dependencyManagement.addDependency(jacksonBom);
+    Model model = new Model();
+    model.setDependencyManagement(dependencyManagement);
+    project.setOriginalModel(model);
+    Dependency core = new Dependency();
+    core.setGroupId("com.fasterxml.jackson.core");
+    core.setArtifactId("jackson-databind");
+    Dependency datatype = new Dependency();
+    datatype.setGroupId("com.fasterxml.jackson.datatype");
+    datatype.setArtifactId("jackson-datatype-jsr310");
+    project.setDependencies(Arrays.asList(core, datatype));
+
+    DocumentParser docParserMock = mock(DocumentParser.class);
+    when(docParserMock.parseArtifactsIds(anyString()))
+        .thenReturn(Collections.singletonList("jackson-bom"));
+    setVariableValueToObject(mojo, "docParser", docParserMock);
+    doNothing().when(mojo).writeStatus(any());
+
+    mojo.execute();
+
+    verify(docParserMock, never()).parseArtifactsIds(anyString());
+    verify(log).info(startsWith("No suitable BOMs found."));
+  }
+
+  public void test_parallel_search_keeps_group_order() throws Exception {
+    SearchMojo mojo = getMojo("search-basic");
+    mojo.setLog(log);
+    setVariableValueToObject(mojo, "threads", 4);
+
+    DocumentParser docParserMock = mock(DocumentParser.class);
+    when(docParserMock.parseArtifactsIdsAsync(anyString(), any()))
+        .thenAnswer(inv -> CompletableFuture.supplyAsync(() -> {
+          String uri = inv.getArgument(0);
+          sleep(uri.endsWith("a") ? 50 : 0);
+          return Collections.singletonList(uri.substring(uri.lastIndexOf('/') + 1) + "-bom");
+        }, inv.getArgument(1)));
+    setVariableValueToObject(mojo, "docParser", docParserMock);
+
+    Collection<DependencyModel> boms = mojo.searchForBoms(Arrays.asList("org.a", "org.b", "org.c"));
+
+    assertEquals(
+        Arrays.asList(
+            new DependencyModel("org.a", "a-bom"),
+            new DependencyModel("org.b", "b-bom"),
+            new DependencyModel("org.c", "c-bom")),
+        new ArrayList<>(boms));
+  }
+
+  public void test_virtual_thread_search() throws Exception {
+    SearchMojo mojo = getMojo("search-basic");
+    mojo.setLog(log);
+    setVariableValueToObject(mojo, "threads", 2);
+    setVariableValueToObject(mojo, "virtualThreads", true);
+
+    DocumentParser docParserMock = mock(DocumentParser.class);
+    when(docParserMock.parseArtifactsIdsAsync(anyString(), any()))
+        .thenAnswer(inv -> CompletableFuture.supplyAsync(() -> {
+          String uri = inv.getArgument(0);
+          return Collections.singletonList(uri.substring(uri.lastIndexOf('/') + 1) + "-bom");
+        }, inv.getArgument(1)));
+    setVariableValueToObject(mojo, "docParser", docParserMock);
+
+    Collection<DependencyModel> boms = mojo.searchForBoms(Arrays.asList("org.a", "org.b"));
+
+    assertEquals(
+        Arrays.asList(new DependencyModel("org.a", "a-bom"), new DependencyModel("org.b", "b-bom")),
+        new ArrayList<>(boms));
+    if (!hasVirtualThreads()) {
+      verify(log).warn(startsWith("Virtual threads are not available"));
+    }
+  }
+
+  public void test_search_stops_at_deadline() throws Exception {
+    SearchMojo mojo = getMojo("search-basic");
+    mojo.setLog(log);
+    setVariableValueToObject(mojo, "threads", 2);
+    setVariableValueToObject(mojo, "deadline", Deadline.in(200));
+
+    DocumentParser docParserMock = mock(DocumentParser.class);
+    when(docParserMock.parseArtifactsIdsAsync(anyString(), any()))
+        .thenAnswer(inv -> CompletableFuture.supplyAsync(() -> {
+          String uri = inv.getArgument(0);
+          sleep(uri.endsWith("slow") ? 10_000 : 0);
+          return Collections.singletonList("foo-bom");
+        }, inv.getArgument(1)));
+    setVariableValueToObject(mojo, "docParser", docParserMock);
+
+    long start = System.nanoTime();
+    Map<String, List<String>> res = mojo.lookupAll(Arrays.asList("org.fast", "org.slow"));
+
+    assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5));
+    assertEquals(Collections.singletonList("foo-bom"), res.get("org.fast"));
+    assertSame(DocumentParser.FAILED, res.get("org.slow"));
+    verify(log).warn(startsWith("Search time budget of"));
   }
 
   public void test_incremental_with_changes() throws Exception {
@@ -92,10 +211,10 @@ public class SearchMojoTestCase extends AbstractMojoTestCase {
     project.setOriginalModel(new Model());
 
     setupDependencies(mojo);
-    setupDocParser(mojo, "spring-bom");
+    setupDocParser(mojo, "spring-framework-bom");
 
-    doReturn(true).doReturn(true).when(mojo).isPomFilesChanged();
-    doNothing().when(mojo).writeStatusFile(anyString(), anyString());
+    doReturn(true).doReturn(true).when(mojo).isInputChanged();
+    doNothing().when(mojo).writeStatus(any());
 
     mojo.execute();
 
@@ -110,8 +229,8 @@ public class SearchMojoTestCase extends AbstractMojoTestCase {
     verify(log).info(startsWith("Changes detected. Searching for available BOM dependencies."));
     verify(log).info(
         startsWith("Following BOMs found for module: [org.springframework:spring-framework-bom]."));
-    verify(mojo, times(2)).isPomFilesChanged();
-    verify(mojo, times(2)).writeStatusFile(anyString(), anyString());
+    verify(mojo, times(2)).isInputChanged();
+    verify(mojo, times(2)).writeStatus(any());
   }
 
   public void test_incremental_no_changes() throws Exception {
@@ -122,10 +241,10 @@ public class SearchMojoTestCase extends AbstractMojoTestCase {
     project.setOriginalModel(new Model());
 
     setupDependencies(mojo);
-    setupDocParser(mojo, "spring-bom");
+    setupDocParser(mojo, "spring-framework-bom");
 
-    doReturn(true).doReturn(false).when(mojo).isPomFilesChanged();
-    doNothing().when(mojo).writeStatusFile(anyString(), anyString());
+    doReturn(true).doReturn(false).when(mojo).isInputChanged();
+    doNothing().when(mojo).writeStatus(any());
 
     mojo.execute();
 
@@ -141,11 +260,122 @@ public class SearchMojoTestCase extends AbstractMojoTestCase {
     verify(log).info(
         startsWith("Following BOMs found for module: [org.springframework:spring-framework-bom]."));
 
-    verify(mojo, times(2)).isPomFilesChanged();
-    verify(mojo, times(2)).writeStatusFile(anyString(), anyString());
+    verify(mojo, times(2)).isInputChanged();
+    verify(mojo, times(2)).writeStatus(any());
 
   }
 
+  public void test_incremental_reuses_group_results() throws Exception {
+    SearchMojo mojo = spy(getMojo("search-incremental"));
+    mojo.setLog(log);
+
+    MavenProject project = (MavenProject) getVariableValueFromObject(mojo, "project");
+    project.setOriginalModel(new Model());
+
+    setupDependencies(mojo);
+    DocumentParser docParserMock = mock(DocumentParser.class);
+    setVariableValueToObject(mojo, "docParser", docParserMock);
+
+    doReturn(true).when(mojo).isInputChanged();
+    BuildStatus previous = new BuildStatus();
+    previous.setGroups(SearchMojo.MAVEN_CENTRAL, Collections.singletonMap(
+        "org.springframework", Collections.singletonList("spring-framework-bom")));
+    doReturn(previous).when(mojo).readStatus();
+    doNothing().when(mojo).writeStatus(any());
+
+    mojo.execute();
+
+    verify(docParserMock, never()).parseArtifactsIds(anyString());
+    verify(log).info(
+        startsWith("Following BOMs found for module: [org.springframework:spring-framework-bom]."));
+    verify(mojo).writeStatus(argThat(s -> s.getGroups(SearchMojo.MAVEN_CENTRAL)
+        .containsKey("org.springframework")));
+  }
+
+  public void test_incremental_looks_up_expired_group_results() throws Exception {
+    SearchMojo mojo = spy(getMojo("search-incremental"));
+    mojo.setLog(log);
+    setVariableValueToObject(mojo, "cacheTtl", 60);
+    setVariableValueToObject(mojo, "negativeCacheTtl", 60);
+
+    MavenProject project = (MavenProject) getVariableValueFromObject(mojo, "project");
+    project.setOriginalModel(new Model());
+
+    setupDependencies(mojo);
+    DocumentParser docParserMock = mock(DocumentParser.class);
+    when(docParserMock.parseArtifactsIds(anyString()))
+        .thenReturn(Collections.singletonList("spring-framework-bom"));
+    setVariableValueToObject(mojo, "docParser", docParserMock);
+
+    doReturn(true).when(mojo).isInputChanged();
+    doReturn(expiredStatus()).when(mojo).readStatus();
+    doNothing().when(mojo).writeStatus(any());
+
+    mojo.execute();
+
+    verify(docParserMock).parseArtifactsIds(anyString());
+    verify(mojo).writeStatus(argThat(s -> System.currentTimeMillis()
+        - s.getLookedUpAt("org.springframework") < TimeUnit.MINUTES.toMillis(1)));
+  }
+
+  public void test_unchanged_inputs_search_again_when_group_results_expired() throws Exception {
+    SearchMojo mojo = spy(getMojo("search-incremental"));
+    mojo.setLog(log);
+    setVariableValueToObject(mojo, "cacheTtl", 60);
+    setVariableValueToObject(mojo, "negativeCacheTtl", 60);
+
+    MavenProject project = (MavenProject) getVariableValueFromObject(mojo, "project");
+    project.setOriginalModel(new Model());
+
+    setupDependencies(mojo);
+    DocumentParser docParserMock = mock(DocumentParser.class);
+    when(docParserMock.parseArtifactsIds(anyString()))
+        .thenReturn(Collections.singletonList("spring-framework-bom"));
+    setVariableValueToObject(mojo, "docParser", docParserMock);
+
+    doReturn(false).when(mojo).isInputChanged();
+    BuildStatus previous = expiredStatus();
+    previous.setBoms(Collections.emptyList());
+    doReturn(previous).when(mojo).readStatus();
+    doNothing().when(mojo).writeStatus(any());
+
+    mojo.execute();
+
+    verify(docParserMock).parseArtifactsIds(anyString());
+    verify(log).info(
+        startsWith("Following BOMs found for module: [org.springframework:spring-framework-bom]."));
+  }
+
+  private static BuildStatus expiredStatus() {
+    BuildStatus status = new BuildStatus();
+    status.setGroups(SearchMojo.MAVEN_CENTRAL,
+        Collections.singletonMap("org.springframework", Collections.emptyList()),
+        Collections.singletonMap("org.springframework",
+            System.currentTimeMillis() - TimeUnit.HOURS.toMillis(2)));
+    return status;
+  }
+
+  public void test_incremental_retries_failed_groups() throws Exception {
+    SearchMojo mojo = spy(getMojo("search-incremental"));
+    mojo.setLog(log);
+
+    MavenProject project = (MavenProject) getVariableValueFromObject(mojo, "project");
+    project.setOriginalModel(new Model());
+
+    setupDependencies(mojo);
+    DocumentParser docParserMock = mock(DocumentParser.class);
+    when(docParserMock.parseArtifactsIds(anyString())).thenReturn(DocumentParser.FAILED);
+    setVariableValueToObject(mojo, "docParser", docParserMock);
+
+    doReturn(true).when(mojo).isInputChanged();
+    doNothing().when(mojo).writeStatus(any());
+
+    mojo.execute();
+
+    verify(docParserMock).parseArtifactsIds(anyString());
+    verify(mojo).writeStatus(argThat(s -> s.getGroups(SearchMojo.MAVEN_CENTRAL).isEmpty()));
+  }
+
   private SearchMojo getMojo(String location) throws Exception {
     File pom = new File(String.format("target/test-classes/unit/%s/plugin-config.xml", location));
     assertTrue(pom.exists());
@@ -210,4 +440,20 @@ public class SearchMojoTestCase extends AbstractMojoTestCase {
     setVariableValueToObject(mojo, "docParser", docParserMock);
   }
 
-}
\ No newline at end of file
+  private static boolean hasVirtualThreads() {
+    try {
+      Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+      return true;
+    } catch (NoSuchMethodException e) {
+      return false;
+    }
+  }
+
+  private static void sleep(long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
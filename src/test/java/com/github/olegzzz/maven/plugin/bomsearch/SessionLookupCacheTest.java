@@ -0,0 +1,241 @@
+package com.github.olegzzz.maven.plugin.bomsearch;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.maven.execution.MavenSession;
+import org.eclipse.aether.DefaultRepositorySystemSession;
+import org.junit.Test;
+import org.junit.experimental.runners.Enclosed;
+import org.junit.runner.RunWith;
+
+@RunWith(Enclosed.class)
+public class SessionLookupCacheTest {
+
+  public static class ForSession {
+
+    @Test
+    public void returns_same_instance_for_same_session() {
+      MavenSession session = mock(MavenSession.class);
+      when(session.getRepositorySession()).thenReturn(new DefaultRepositorySystemSession());
+
+      assertSame(
+          SessionLookupCache.forSession(session), SessionLookupCache.forSession(session));
+    }
+
+    @Test
+    public void returns_new_instance_without_repository_session() {
+      MavenSession session = mock(MavenSession.class);
+
+      assertNotSame(
+          SessionLookupCache.forSession(session), SessionLookupCache.forSession(session));
+    }
+
+    @Test
+    public void creates_one_instance_for_concurrent_modules() throws Exception {
+      MavenSession session = mock(MavenSession.class);
+      when(session.getRepositorySession()).thenReturn(new DefaultRepositorySystemSession());
+      AtomicInteger created = new AtomicInteger();
+      CountDownLatch start = new CountDownLatch(1);
+
+      ExecutorService executor = Executors.newFixedThreadPool(4);
+      try {
+        List<Future<Object>> results = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+          results.add(executor.submit(() -> {
+            start.await(5, TimeUnit.SECONDS);
+            return SessionScope.get(session, Object.class, "shared", () -> {
+              created.incrementAndGet();
+              return new Object();
+            });
+          }));
+        }
+        start.countDown();
+
+        Object first = results.get(0).get(5, TimeUnit.SECONDS);
+        for (Future<Object> result : results) {
+          assertSame(first, result.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, created.get());
+      } finally {
+        executor.shutdownNow();
+      }
+    }
+
+  }
+
+  public static class Get {
+
+    @Test
+    public void loads_each_uri_once() {
+      SessionLookupCache cache = new SessionLookupCache();
+      AtomicInteger calls = new AtomicInteger();
+
+      for (int i = 0; i < 3; i++) {
+        List<String> ids = cache.get("foo/bar", uri -> {
+          calls.incrementAndGet();
+          return Collections.singletonList("bar-bom");
+        });
+        assertEquals(Collections.singletonList("bar-bom"), ids);
+      }
+
+      assertEquals(1, calls.get());
+      assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void shares_lookup_in_flight() throws Exception {
+      SessionLookupCache cache = new SessionLookupCache();
+      AtomicInteger calls = new AtomicInteger();
+      CountDownLatch started = new CountDownLatch(1);
+      CountDownLatch release = new CountDownLatch(1);
+
+      ExecutorService executor = Executors.newFixedThreadPool(2);
+      try {
+        Future<List<String>> first = executor.submit(() -> cache.get("foo/bar", uri -> {
+          calls.incrementAndGet();
+          started.countDown();
+          await(release);
+          return Collections.singletonList("bar-bom");
+        }));
+        started.await(5, TimeUnit.SECONDS);
+        Future<List<String>> second = executor.submit(() -> cache.get("foo/bar", uri -> {
+          calls.incrementAndGet();
+          return Collections.emptyList();
+        }));
+        release.countDown();
+
+        assertEquals(Collections.singletonList("bar-bom"), first.get(5, TimeUnit.SECONDS));
+        assertEquals(Collections.singletonList("bar-bom"), second.get(5, TimeUnit.SECONDS));
+        assertEquals(1, calls.get());
+      } finally {
+        executor.shutdownNow();
+      }
+    }
+
+    @Test
+    public void retries_after_failed_lookup() {
+      SessionLookupCache cache = new SessionLookupCache();
+
+      assertSame(DocumentParser.FAILED, cache.get("foo/bar", uri -> DocumentParser.FAILED));
+      assertEquals(0, cache.size());
+      assertEquals(Collections.singletonList("bar-bom"),
+          cache.get("foo/bar", uri -> Collections.singletonList("bar-bom")));
+    }
+
+    @Test
+    public void completes_shared_lookup_when_loader_throws_error() {
+      SessionLookupCache cache = new SessionLookupCache();
+      List<CompletableFuture<List<String>>> shared = new ArrayList<>();
+
+      try {
+        cache.get("foo/bar", uri -> {
+          // Another module asking for the same uri meanwhile gets the lookup in flight.
+          shared.add(cache.getAsync(uri, other -> new CompletableFuture<>()));
+          throw new AssertionError("boom");
+        });
+        fail();
+      } catch (CompletionException e) {
+        assertTrue(e.getCause() instanceof AssertionError);
+      }
+
+      assertTrue(shared.get(0).isCompletedExceptionally());
+      assertEquals(0, cache.size());
+    }
+
+    private static void await(CountDownLatch latch) {
+      try {
+        latch.await(5, TimeUnit.SECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+
+  }
+
+  public static class GetAsync {
+
+    @Test
+    public void shares_lookup_in_flight() {
+      SessionLookupCache cache = new SessionLookupCache();
+      CompletableFuture<List<String>> pending = new CompletableFuture<>();
+      AtomicInteger calls = new AtomicInteger();
+
+      CompletableFuture<List<String>> first = cache.getAsync("foo/bar", uri -> {
+        calls.incrementAndGet();
+        return pending;
+      });
+      CompletableFuture<List<String>> second = cache.getAsync("foo/bar", uri -> {
+        calls.incrementAndGet();
+        return CompletableFuture.completedFuture(Collections.emptyList());
+      });
+      pending.complete(Collections.singletonList("bar-bom"));
+
+      assertSame(first, second);
+      assertEquals(Collections.singletonList("bar-bom"), second.join());
+      assertEquals(Collections.singletonList("bar-bom"), cache.get("foo/bar", uri -> null));
+      assertEquals(1, calls.get());
+    }
+
+    @Test
+    public void drops_failed_lookup() {
+      SessionLookupCache cache = new SessionLookupCache();
+      CompletableFuture<List<String>> failed = new CompletableFuture<>();
+      failed.completeExceptionally(new IllegalStateException());
+
+      assertTrue(cache.getAsync("foo/bar", uri -> failed).isCompletedExceptionally());
+      assertEquals(0, cache.size());
+      assertEquals(Collections.singletonList("bar-bom"), cache.getAsync("foo/bar",
+          uri -> CompletableFuture.completedFuture(Collections.singletonList("bar-bom"))).join());
+    }
+
+    @Test
+    public void retries_after_lookup_completed_as_failed() {
+      SessionLookupCache cache = new SessionLookupCache();
+      CompletableFuture<List<String>> pending = new CompletableFuture<>();
+      AtomicInteger calls = new AtomicInteger();
+
+      CompletableFuture<List<String>> first = cache.getAsync("foo/bar", uri -> {
+        calls.incrementAndGet();
+        return pending;
+      });
+      // The lookup is cut off, e.g. by the deadline of the module that started it.
+      first.complete(DocumentParser.FAILED);
+      CompletableFuture<List<String>> second = cache.getAsync("foo/bar", uri -> {
+        calls.incrementAndGet();
+        return CompletableFuture.completedFuture(Collections.singletonList("bar-bom"));
+      });
+
+      assertEquals(Collections.singletonList("bar-bom"), second.join());
+      assertEquals(2, calls.get());
+      assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void retries_after_cancelled_lookup() {
+      SessionLookupCache cache = new SessionLookupCache();
+
+      cache.getAsync("foo/bar", uri -> new CompletableFuture<>()).cancel(true);
+
+      assertEquals(0, cache.size());
+    }
+
+  }
+
+}
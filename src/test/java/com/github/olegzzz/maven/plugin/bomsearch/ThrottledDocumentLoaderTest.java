@@ -0,0 +1,129 @@
+package com.github.olegzzz.maven.plugin.bomsearch;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.jsoup.nodes.Document;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ThrottledDocumentLoaderTest {
+
+  private static final String URI = "https://repo.example.com/maven2/org/foo";
+
+  private final ConditionalResult loaded = ConditionalResult.of(Document.createShell(URI), null,
+      null);
+  private DocumentLoader delegate;
+  private ExecutorService executor;
+
+  @Before
+  public void setUp() {
+    delegate = mock(DocumentLoader.class);
+    executor = Executors.newFixedThreadPool(4);
+  }
+
+  @After
+  public void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void coalesces_identical_requests_in_flight() throws Exception {
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    when(delegate.loadGroupByUri(anyString(), any(), any())).thenAnswer(inv -> {
+      started.countDown();
+      release.await();
+      return loaded;
+    });
+    ThrottledDocumentLoader loader = new ThrottledDocumentLoader(delegate, 0, 4);
+
+    Future<ConditionalResult> first =
+        executor.submit(() -> loader.loadGroupByUri(URI, null, null));
+    started.await();
+    Future<ConditionalResult> second =
+        executor.submit(() -> loader.loadGroupByUri(URI, null, null));
+    Thread.sleep(50);
+    release.countDown();
+
+    assertSame(loaded, first.get());
+    assertSame(loaded, second.get());
+    verify(delegate, times(1)).loadGroupByUri(URI, null, null);
+  }
+
+  @Test
+  public void retries_after_throttling() {
+    when(delegate.loadGroupByUri(anyString(), any(), any()))
+        .thenReturn(ConditionalResult.throttled(0))
+        .thenReturn(loaded);
+    ThrottledDocumentLoader loader = new ThrottledDocumentLoader(delegate, 0, 4, 1);
+
+    assertSame(loaded, loader.loadGroupByUri(URI, null, null));
+    verify(delegate, times(2)).loadGroupByUri(URI, null, null);
+  }
+
+  @Test
+  public void fails_when_throttling_persists() {
+    when(delegate.loadGroupByUri(anyString(), any(), any()))
+        .thenReturn(ConditionalResult.throttled(0));
+    ThrottledDocumentLoader loader = new ThrottledDocumentLoader(delegate, 0, 4, 1);
+
+    assertNull(loader.loadGroupByUri(URI));
+    verify(delegate, times(ThrottledDocumentLoader.MAX_RETRIES + 1))
+        .loadGroupByUri(URI, null, null);
+  }
+
+  @Test
+  public void limits_concurrent_requests_per_host() throws Exception {
+    AtomicInteger running = new AtomicInteger();
+    AtomicInteger maxRunning = new AtomicInteger();
+    when(delegate.loadGroupByUri(anyString(), any(), any())).thenAnswer(inv -> {
+      maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+      Thread.sleep(20);
+      running.decrementAndGet();
+      return loaded;
+    });
+    ThrottledDocumentLoader loader = new ThrottledDocumentLoader(delegate, 0, 2);
+
+    List<Future<ConditionalResult>> futures = new ArrayList<>();
+    for (int i = 0; i < 8; i++) {
+      String uri = URI + i;
+      futures.add(executor.submit(() -> loader.loadGroupByUri(uri, null, null)));
+    }
+    for (Future<ConditionalResult> future : futures) {
+      future.get();
+    }
+
+    assertEquals(2, maxRunning.get());
+  }
+
+  @Test
+  public void limits_requests_per_second() {
+    when(delegate.loadGroupByUri(anyString(), any(), any())).thenReturn(loaded);
+    ThrottledDocumentLoader loader = new ThrottledDocumentLoader(delegate, 50, 4);
+
+    long start = System.nanoTime();
+    for (int i = 0; i < 6; i++) {
+      loader.loadGroupByUri(URI + i, null, null);
+    }
+
+    assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 90);
+  }
+}
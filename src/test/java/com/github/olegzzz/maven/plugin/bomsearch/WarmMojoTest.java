@@ -0,0 +1,175 @@
+package com.github.olegzzz.maven.plugin.bomsearch;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.apache.maven.artifact.repository.ArtifactRepository;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.model.Dependency;
+import org.apache.maven.model.Model;
+import org.apache.maven.plugin.logging.Log;
+import org.apache.maven.plugin.testing.MojoRule;
+import org.apache.maven.project.MavenProject;
+import org.jsoup.nodes.Document;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class WarmMojoTest {
+
+  @Rule
+  public final MojoRule mojoRule = new MojoRule();
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private WarmMojo mojo;
+  private MavenSession session;
+  private Path repo;
+
+  @Before
+  public void setUp() throws Exception {
+    repo = folder.newFolder("repository").toPath();
+    ArtifactRepository localRepository = mock(ArtifactRepository.class);
+    when(localRepository.getBasedir()).thenReturn(repo.toString());
+    session = mock(MavenSession.class);
+    when(session.getLocalRepository()).thenReturn(localRepository);
+    when(session.getProjects())
+        .thenReturn(Collections.singletonList(project("org.springframework", "io.dropwizard")));
+
+    mojo = new WarmMojo();
+    mojoRule.setVariableValueToObject(mojo, "session", session);
+    mojoRule.setVariableValueToObject(mojo, "warmThreads", 4);
+    mojoRule.setVariableValueToObject(mojo, "mavenRepoUrl", SearchMojo.MAVEN_CENTRAL);
+  }
+
+  @Test
+  public void collects_groups_from_reactor_list_and_local_repository() throws Exception {
+    touch("com/acme/acme-core/1.0/acme-core-1.0.pom");
+    touch("com/acme/tools/acme-cli/2.0/acme-cli-2.0.pom");
+    touch(".cache/org/ignored/thing/1.0/thing-1.0.pom");
+    mojoRule.setVariableValueToObject(mojo, "groups", asList(" io.netty ", ""));
+    mojoRule.setVariableValueToObject(mojo, "scanLocalRepository", true);
+
+    assertEquals(asList("com.acme", "com.acme.tools", "io.dropwizard", "io.netty",
+        "org.springframework"), new ArrayList<>(mojo.collectGroups()));
+  }
+
+  @Test
+  public void leaves_local_repository_alone_unless_asked() throws Exception {
+    touch("com/acme/acme-core/1.0/acme-core-1.0.pom");
+
+    assertEquals(asList("io.dropwizard", "org.springframework"),
+        new ArrayList<>(mojo.collectGroups()));
+  }
+
+  @Test
+  public void writes_lookups_to_persistent_cache() throws Exception {
+    Path file = folder.getRoot().toPath().resolve("lookups.bin");
+    PersistentLookupCache cache =
+        new PersistentLookupCache(file, TimeUnit.HOURS.toMillis(1), 10);
+    Document doc = Document.createShell(SearchMojo.MAVEN_CENTRAL);
+    doc.body().appendElement("a").attr("title", "spring-framework-bom")
+        .attr("href", "spring-framework-bom/");
+    DocumentLoader loader = uri -> doc;
+    mojoRule.setVariableValueToObject(mojo, "docParser", new DocumentParser(loader, cache));
+    mojoRule.setVariableValueToObject(mojo, "persistentCache", cache);
+    Log log = mock(Log.class);
+    mojo.setLog(log);
+
+    mojo.execute();
+
+    PersistentLookupCache reloaded =
+        PersistentLookupCache.load(file, TimeUnit.HOURS.toMillis(1), 10);
+    assertEquals(Collections.singletonList("spring-framework-bom"),
+        reloaded.get(SearchMojo.MAVEN_CENTRAL + "/org/springframework"));
+    assertEquals(Collections.singletonList("spring-framework-bom"),
+        reloaded.get(SearchMojo.MAVEN_CENTRAL + "/io/dropwizard"));
+    verify(log).info("Cached lookups of 2 groups, 0 failed.");
+  }
+
+  @Test
+  public void does_not_stop_at_search_timeout() throws Exception {
+    PersistentLookupCache cache = new PersistentLookupCache(
+        folder.getRoot().toPath().resolve("lookups.bin"), TimeUnit.HOURS.toMillis(1), 10);
+    DocumentLoader loader = uri -> {
+      try {
+        Thread.sleep(1500);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      return Document.createShell(uri);
+    };
+    mojoRule.setVariableValueToObject(mojo, "docParser", new DocumentParser(loader, cache));
+    mojoRule.setVariableValueToObject(mojo, "persistentCache", cache);
+    mojoRule.setVariableValueToObject(mojo, "searchTimeout", 1);
+    Log log = mock(Log.class);
+    mojo.setLog(log);
+
+    mojo.execute();
+
+    verify(log).info("Cached lookups of 2 groups, 0 failed.");
+  }
+
+  @Test
+  public void leaves_search_settings_alone() throws Exception {
+    mojoRule.setVariableValueToObject(mojo, "threads", 2);
+    mojoRule.setVariableValueToObject(mojo, "searchTimeout", 60);
+    mojoRule.setVariableValueToObject(mojo, "staleWhileRevalidate", true);
+    mojoRule.setVariableValueToObject(mojo, "docParser", mock(DocumentParser.class));
+    mojo.setLog(mock(Log.class));
+
+    mojo.execute();
+
+    assertEquals(2, mojoRule.getVariableValueFromObject(mojo, "threads"));
+    assertEquals(60, mojoRule.getVariableValueFromObject(mojo, "searchTimeout"));
+    assertEquals(true, mojoRule.getVariableValueFromObject(mojo, "staleWhileRevalidate"));
+    assertEquals(4, mojo.getThreads());
+    assertEquals(0, mojo.getSearchTimeout());
+  }
+
+  @Test
+  public void does_nothing_without_persistent_cache() throws Exception {
+    mojoRule.setVariableValueToObject(mojo, "docParser", mock(DocumentParser.class));
+    Log log = mock(Log.class);
+    mojo.setLog(log);
+
+    mojo.execute();
+
+    verify(log).warn(startsWith("The lookup cache is disabled"));
+    assertTrue(Files.notExists(folder.getRoot().toPath().resolve("lookups.bin")));
+  }
+
+  private void touch(String path) throws IOException {
+    Path file = repo.resolve(path);
+    Files.createDirectories(file.getParent());
+    Files.createFile(file);
+  }
+
+  private static MavenProject project(String... groups) {
+    MavenProject project = new MavenProject();
+    project.setOriginalModel(new Model());
+    List<Dependency> deps = new ArrayList<>();
+    for (String group : groups) {
+      Dependency d = new Dependency();
+      d.setGroupId(group);
+      d.setArtifactId(group.substring(group.lastIndexOf('.') + 1));
+      deps.add(d);
+    }
+    project.setDependencies(deps);
+    return project;
+  }
+}